@@ -0,0 +1,49 @@
+// Catalog read load test, used to compare platform-thread and virtual-thread request handling.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e SHOP_ID=1 loadtest/catalog-reads.js
+//
+// Run it once against the backend started normally and once with
+// SPRING_THREADS_VIRTUAL_ENABLED=true (Java 21), then compare http_reqs/s and
+// the p(99) of http_req_duration. VUS defaults to 5000 concurrent connections.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const SHOP_ID = __ENV.SHOP_ID || '1';
+const VUS = parseInt(__ENV.VUS || '5000', 10);
+
+export const options = {
+  scenarios: {
+    catalog: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: __ENV.DURATION || '2m', target: VUS },
+        { duration: '10s', target: 0 },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+export function setup() {
+  const res = http.post(`${BASE_URL}/api/v1/auth/login`,
+    JSON.stringify({ username: __ENV.USERNAME || 'shop1', password: __ENV.PASSWORD || 'shop123' }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(res, { 'logged in': (r) => r.status === 200 });
+  return { token: res.json('token') };
+}
+
+export default function (data) {
+  // No If-None-Match, so no 304s. Start the backend with APP_CATALOG_CACHE_MAX_BYTES=0
+  // to also bypass the response cache and measure the JDBC path.
+  const res = http.get(`${BASE_URL}/api/v1/shops/${SHOP_ID}/products/page?size=50&sort=name`, {
+    headers: { Authorization: `Bearer ${data.token}`, 'Accept-Encoding': 'identity' },
+  });
+  check(res, { 'status 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,54 @@
+-- Query plans for the hot read and write paths, to check that each one uses
+-- an index from db/migration (V2, V3) rather than a sequential
+-- scan. Run against a seeded database (see run.sh), e.g.
+--   psql "$DB_URL" -f loadtest/explain-hot-queries.sql
+-- Writes run inside a transaction that is rolled back.
+
+-- The owner with the most shops and their largest shop
+SELECT s.owner_id AS owner_id FROM shop s GROUP BY s.owner_id ORDER BY count(*) DESC LIMIT 1 \gset
+SELECT p.shop_id AS shop_id FROM product p JOIN shop s ON s.id = p.shop_id
+    WHERE s.owner_id = :owner_id GROUP BY p.shop_id ORDER BY count(*) DESC LIMIT 1 \gset
+
+\echo '--- Shops of one owner (GET /shops/my-shops)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, name, address, phone, owner_id, latitude, longitude, open_hours, delivery_option
+FROM shop WHERE owner_id = :owner_id ORDER BY id;
+
+\echo '--- Ownership check'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT owner_id FROM shop WHERE id = :shop_id;
+
+\echo '--- Whole catalog of one shop'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, name, description, price, stock, category FROM product WHERE shop_id = :shop_id ORDER BY id;
+
+\echo '--- First catalog page sorted by price'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, name, description, price, stock, category FROM product
+WHERE shop_id = :shop_id ORDER BY price, id LIMIT 51;
+
+\echo '--- One category of one shop'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, name, price, stock FROM product
+WHERE shop_id = :shop_id AND category = 'Groceries' ORDER BY id;
+
+\echo '--- Delta sync: products changed since a cursor'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, name, description, price, stock, category FROM product
+WHERE shop_id = :shop_id AND change_xid >= pg_snapshot_xmin(pg_current_snapshot())::text::bigint - 1000
+ORDER BY change_xid, id LIMIT 1001;
+
+BEGIN;
+
+\echo '--- Atomic stock adjustment'
+EXPLAIN (ANALYZE, BUFFERS)
+UPDATE product p SET stock = p.stock + 1 FROM shop s
+WHERE p.id = (SELECT min(id) FROM product WHERE shop_id = :shop_id)
+  AND p.shop_id = s.id AND s.owner_id = :owner_id AND p.stock + 1 >= 0
+RETURNING p.stock, p.shop_id;
+
+\echo '--- Purge of applied reservation markers'
+EXPLAIN (ANALYZE, BUFFERS)
+DELETE FROM stock_reservation_applied WHERE applied_at < now() - interval '1 day';
+
+ROLLBACK;
@@ -0,0 +1,162 @@
+// Mixed-traffic load test: logins, catalog reads and product writes against the REST API,
+// reported per endpoint (requests/s and p50/p95/p99).
+//
+// Expects data seeded by the loadtest-seed profile (owners loadowner1..N, password loadtest123).
+// Usually started through loadtest/run.sh; to run by hand:
+//   k6 run -e BASE_URL=http://localhost:8080 -e OWNERS=1000 loadtest/mixed-traffic.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const OWNERS = parseInt(__ENV.OWNERS || '1000', 10);
+const SAMPLE_OWNERS = Math.min(OWNERS, parseInt(__ENV.SAMPLE_OWNERS || '100', 10));
+const PASSWORD = __ENV.PASSWORD || 'loadtest123';
+const DURATION = __ENV.DURATION || '3m';
+
+const ENDPOINTS = ['login', 'catalog_page', 'product_search', 'shops_nearby', 'stock_adjust', 'product_add'];
+
+function rateScenario(exec, rate) {
+  return {
+    executor: 'constant-arrival-rate',
+    exec,
+    rate: parseInt(rate, 10),
+    timeUnit: '1s',
+    duration: DURATION,
+    preAllocatedVUs: Math.max(10, parseInt(rate, 10)),
+    maxVUs: Math.max(50, parseInt(rate, 10) * 10),
+  };
+}
+
+// Thresholds on tagged sub-metrics make k6 keep per-endpoint statistics for the summary
+const thresholds = { http_req_failed: ['rate<0.02'] };
+for (const endpoint of ENDPOINTS) {
+  thresholds[`http_req_duration{endpoint:${endpoint}}`] = ['p(99)>=0'];
+  thresholds[`http_reqs{endpoint:${endpoint}}`] = ['count>=0'];
+}
+
+export const options = {
+  scenarios: {
+    logins: rateScenario('loginTraffic', __ENV.LOGIN_RATE || '10'),
+    reads: rateScenario('read', __ENV.READ_RATE || '400'),
+    writes: rateScenario('write', __ENV.WRITE_RATE || '40'),
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds,
+  setupTimeout: '5m',
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+function ownerName(i) {
+  return `loadowner${i}`;
+}
+
+function login(username, endpoint = 'login') {
+  const res = http.post(`${BASE_URL}/api/v1/auth/login`, JSON.stringify({ username, password: PASSWORD }),
+    { headers: JSON_HEADERS, tags: { endpoint } });
+  return res.status === 200 ? res.json('token') : null;
+}
+
+function auth(token) {
+  return { Authorization: `Bearer ${token}` };
+}
+
+// Power-law pick: low indexes (the busiest shops) are chosen far more often
+function skewedIndex(n) {
+  return Math.floor(Math.pow(Math.random(), 3) * n);
+}
+
+export function setup() {
+  const owners = [];
+  for (let i = 1; i <= SAMPLE_OWNERS; i++) {
+    const token = login(ownerName(i), 'setup');
+    if (!token) {
+      continue;
+    }
+    const shops = http.get(`${BASE_URL}/api/v1/shops/mine`,
+      { headers: auth(token), tags: { endpoint: 'setup' } }).json();
+    const ownerShops = [];
+    for (const shop of shops) {
+      const page = http.get(`${BASE_URL}/api/v1/shops/${shop.id}/products/page?size=50`,
+        { headers: auth(token), tags: { endpoint: 'setup' } });
+      ownerShops.push({
+        id: shop.id,
+        latitude: shop.latitude,
+        longitude: shop.longitude,
+        productIds: page.status === 200 ? page.json('items').map((p) => p.id) : [],
+      });
+    }
+    owners.push({ token, shops: ownerShops });
+  }
+  // Seeded sizes are already Zipf-skewed; skewedIndex adds skew in how often each shop is hit
+  const shops = owners.flatMap((o) => o.shops.map((s) => ({ ...s, token: o.token })));
+  if (shops.length === 0) {
+    throw new Error('No seeded shops found; start the backend with the loadtest-seed profile');
+  }
+  return { owners, shops };
+}
+
+export function loginTraffic() {
+  const token = login(ownerName(1 + Math.floor(Math.random() * OWNERS)));
+  check(token, { 'login ok': (t) => t !== null });
+}
+
+export function read(data) {
+  const shop = data.shops[skewedIndex(data.shops.length)];
+  const roll = Math.random();
+  let res;
+  if (roll < 0.8) {
+    res = http.get(`${BASE_URL}/api/v1/shops/${shop.id}/products/page?size=50&sort=name`,
+      { headers: auth(shop.token), tags: { endpoint: 'catalog_page' } });
+  } else if (roll < 0.95) {
+    const term = ['rice', 'tea', 'organic', 'soap', 'milk', 'chips'][Math.floor(Math.random() * 6)];
+    res = http.get(`${BASE_URL}/api/v1/products/search?q=${term}&limit=20`,
+      { headers: auth(shop.token), tags: { endpoint: 'product_search' } });
+  } else {
+    res = http.get(`${BASE_URL}/api/v1/shops/nearby?lat=${shop.latitude}&lon=${shop.longitude}&radiusKm=5`,
+      { headers: auth(shop.token), tags: { endpoint: 'shops_nearby' } });
+  }
+  check(res, { 'read ok': (r) => r.status === 200 });
+}
+
+export function write(data) {
+  const shop = data.shops[skewedIndex(data.shops.length)];
+  let res;
+  if (shop.productIds.length > 0 && Math.random() < 0.9) {
+    const productId = shop.productIds[Math.floor(Math.random() * shop.productIds.length)];
+    // Small random changes keep stock roughly level over a run; 409 (would go negative) is expected
+    const delta = Math.random() < 0.5 ? -1 : 1;
+    res = http.post(`${BASE_URL}/api/v1/products/${productId}/stock:adjust`, JSON.stringify({ delta }),
+      { headers: { ...JSON_HEADERS, ...auth(shop.token) }, tags: { endpoint: 'stock_adjust' },
+        responseCallback: http.expectedStatuses(200, 409) });
+  } else {
+    res = http.post(`${BASE_URL}/api/v1/shops/${shop.id}/products`, JSON.stringify({
+      name: `Load test item ${Date.now()}`, description: 'Added by the load test',
+      price: 9.99, stock: 10, category: 'Groceries',
+    }), { headers: { ...JSON_HEADERS, ...auth(shop.token) }, tags: { endpoint: 'product_add' } });
+  }
+  check(res, { 'write ok': (r) => r.status === 200 || r.status === 201 || r.status === 409 });
+}
+
+export function handleSummary(data) {
+  const seconds = data.state.testRunDurationMs / 1000;
+  const rows = [['endpoint', 'requests', 'req/s', 'p50 ms', 'p95 ms', 'p99 ms']];
+  for (const endpoint of ENDPOINTS) {
+    const count = data.metrics[`http_reqs{endpoint:${endpoint}}`];
+    const duration = data.metrics[`http_req_duration{endpoint:${endpoint}}`];
+    if (!count || !duration || count.values.count === 0) {
+      continue;
+    }
+    const v = duration.values;
+    rows.push([endpoint, String(count.values.count), (count.values.count / seconds).toFixed(1),
+      v['p(50)'].toFixed(1), v['p(95)'].toFixed(1), v['p(99)'].toFixed(1)]);
+  }
+  const widths = rows[0].map((_, i) => Math.max(...rows.map((r) => r[i].length)));
+  const table = rows.map((r) => r.map((cell, i) => cell.padStart(widths[i])).join('  ')).join('\n');
+  const out = __ENV.REPORT_DIR || 'loadtest/results';
+  return {
+    stdout: `\n${table}\n`,
+    [`${out}/summary.txt`]: `${table}\n`,
+    [`${out}/summary.json`]: JSON.stringify(data, null, 2),
+  };
+}
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# End-to-end load test on one Linux box:
+#   1. starts a throwaway PostgreSQL in Docker (unless DB_URL is given),
+#   2. builds and starts the backend with the loadtest-seed profile, which seeds
+#      OWNERS x SHOPS_PER_OWNER x PRODUCTS_PER_SHOP with Zipf skew,
+#   3. replays mixed login / catalog-read / product-write traffic with k6,
+#   4. prints requests/s and p50/p95/p99 per endpoint (also in loadtest/results/).
+#
+# Requires docker (or DB_URL/DB_USER/DB_PASSWORD), Java 17+, curl and k6.
+# Tunables: OWNERS SHOPS_PER_OWNER PRODUCTS_PER_SHOP SEED DURATION LOGIN_RATE READ_RATE WRITE_RATE
+#           SAMPLE_OWNERS APP_PORT JAVA_OPTS
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+OWNERS=${OWNERS:-1000}
+SHOPS_PER_OWNER=${SHOPS_PER_OWNER:-3}
+PRODUCTS_PER_SHOP=${PRODUCTS_PER_SHOP:-200}
+SEED=${SEED:-42}
+APP_PORT=${APP_PORT:-8080}
+REPORT_DIR=loadtest/results
+mkdir -p "$REPORT_DIR"
+
+cleanup() {
+    if [ -n "${APP_PID:-}" ]; then kill "$APP_PID" 2>/dev/null || true; wait "$APP_PID" 2>/dev/null || true; fi
+    if [ -n "${DB_CONTAINER:-}" ]; then docker stop "$DB_CONTAINER" >/dev/null || true; fi
+}
+trap cleanup EXIT
+
+if [ -z "${DB_URL:-}" ]; then
+    DB_PORT=${DB_PORT:-55432}
+    DB_USER=inventory
+    DB_PASSWORD=inventory
+    DB_CONTAINER=inventory-loadtest-db
+    docker run -d --rm --name "$DB_CONTAINER" -p "$DB_PORT:5432" \
+        -e POSTGRES_USER="$DB_USER" -e POSTGRES_PASSWORD="$DB_PASSWORD" -e POSTGRES_DB=inventory_loadtest \
+        postgres:16 >/dev/null
+    until docker exec "$DB_CONTAINER" pg_isready -U "$DB_USER" -d inventory_loadtest >/dev/null 2>&1; do sleep 1; done
+    DB_URL="jdbc:postgresql://localhost:$DB_PORT/inventory_loadtest?reWriteBatchedInserts=true"
+fi
+
+./gradlew -q bootJar
+java ${JAVA_OPTS:-} -jar build/libs/inventory-0.0.1-SNAPSHOT.jar \
+    --server.port="$APP_PORT" \
+    --spring.profiles.active=loadtest-seed \
+    --spring.datasource.url="$DB_URL" \
+    --spring.datasource.username="${DB_USER:-}" \
+    --spring.datasource.password="${DB_PASSWORD:-}" \
+    --spring.jpa.show-sql=false \
+    --app.reservations.log-path="$REPORT_DIR/reservations.log" \
+    --app.seed.owners="$OWNERS" \
+    --app.seed.shops-per-owner="$SHOPS_PER_OWNER" \
+    --app.seed.products-per-shop="$PRODUCTS_PER_SHOP" \
+    --app.seed.random-seed="$SEED" \
+    > "$REPORT_DIR/backend.log" 2>&1 &
+APP_PID=$!
+
+echo "Waiting for the backend (seeding can take a few minutes; log: $REPORT_DIR/backend.log)..."
+until curl -fs "http://localhost:$APP_PORT/actuator/health" >/dev/null; do
+    if ! kill -0 "$APP_PID" 2>/dev/null; then echo "Backend exited; see $REPORT_DIR/backend.log" >&2; exit 1; fi
+    sleep 2
+done
+
+k6 run --quiet \
+    -e BASE_URL="http://localhost:$APP_PORT" -e OWNERS="$OWNERS" -e REPORT_DIR="$REPORT_DIR" \
+    -e DURATION="${DURATION:-3m}" -e LOGIN_RATE="${LOGIN_RATE:-10}" -e READ_RATE="${READ_RATE:-400}" \
+    -e WRITE_RATE="${WRITE_RATE:-40}" -e SAMPLE_OWNERS="${SAMPLE_OWNERS:-100}" \
+    loadtest/mixed-traffic.js
@@ -0,0 +1,50 @@
+package com.inventory.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a shop catalog response, at the sizes of a single
+ * product, a default page, a maximum page and a large full listing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductJsonBenchmark {
+
+    @Param({ "1", "50", "500", "5000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<ProductResponse> products;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the ObjectMapper used by the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(new ProductResponse((long) i + 1, 7L, "Product " + i,
+                    "Description of product " + i + " with a few more words", new BigDecimal("19.99"),
+                    i % 200, i % 3 == 0 ? "Groceries" : "Household"));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(products);
+    }
+}
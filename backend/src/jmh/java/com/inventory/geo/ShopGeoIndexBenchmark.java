@@ -0,0 +1,82 @@
+package com.inventory.geo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest-shop query through the grid index against the full scan it
+ * replaced. Shops are spread over a metro-sized area (about 2 by 2 degrees)
+ * and queries use a 5 km radius with the default limit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ShopGeoIndexBenchmark {
+
+    private static final double RADIUS_KM = 5;
+    private static final int LIMIT = 20;
+    private static final int QUERIES = 1024;
+
+    @Param({ "10000", "100000" })
+    public int shops;
+
+    private ShopGeoIndex index;
+    private ShopLocation[] all;
+    private double[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ShopGeoIndex(0.05);
+        all = new ShopLocation[shops];
+        for (int i = 0; i < shops; i++) {
+            ShopLocation location = new ShopLocation((long) i + 1, 17.5 + random.nextDouble() * 2,
+                    72.8 + random.nextDouble() * 2);
+            all[i] = location;
+            index.put(location);
+        }
+        queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = new double[] { 17.5 + random.nextDouble() * 2, 72.8 + random.nextDouble() * 2 };
+        }
+    }
+
+    @Benchmark
+    public List<ShopDistance> gridIndex() {
+        double[] q = queries[next++ & (QUERIES - 1)];
+        return index.nearest(q[0], q[1], RADIUS_KM, LIMIT);
+    }
+
+    @Benchmark
+    public List<ShopDistance> fullScan() {
+        double[] q = queries[next++ & (QUERIES - 1)];
+        PriorityQueue<ShopDistance> best = new PriorityQueue<>(
+                Comparator.comparingDouble(ShopDistance::getDistanceKm).reversed());
+        for (ShopLocation shop : all) {
+            double d = GeoMath.haversineKm(q[0], q[1], shop.getLatitude(), shop.getLongitude());
+            if (d <= RADIUS_KM) {
+                best.add(new ShopDistance(shop.getShopId(), d));
+                if (best.size() > LIMIT) {
+                    best.poll();
+                }
+            }
+        }
+        List<ShopDistance> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(ShopDistance::getDistanceKm));
+        return result;
+    }
+}
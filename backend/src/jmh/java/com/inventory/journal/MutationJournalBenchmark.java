@@ -0,0 +1,81 @@
+package com.inventory.journal;
+
+import com.inventory.dto.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Journal appends from 8 concurrent writers, as many request threads would
+ * issue them. Throughput is records per second; the sample-time run gives the
+ * latency distribution of one append, whose p99 is what the journal adds to
+ * the p99 of a write endpoint (each write journals once, before its commit).
+ *
+ * sync=group waits for the disk, so its numbers depend on the device's flush
+ * latency: run it on the disk the journal will use (JOURNAL_BENCH_DIR,
+ * default the system temp directory). sync=async measures the append alone.
+ */
+@State(Scope.Benchmark)
+public class MutationJournalBenchmark {
+
+    @Param({ "group", "async" })
+    public String sync;
+
+    private Path dir;
+    private MutationJournal journal;
+    private Mutation mutation;
+
+    @Setup
+    public void setUp() throws IOException {
+        String base = System.getenv("JOURNAL_BENCH_DIR");
+        dir = base != null ? Files.createTempDirectory(Path.of(base), "journal-bench")
+                : Files.createTempDirectory("journal-bench");
+        journal = new MutationJournal(true, dir.toString(), 64 * 1024 * 1024, sync, 10, 0,
+                new SimpleMeterRegistry());
+        journal.start();
+        mutation = Mutation.productUpdated(new ProductResponse(123456L, 42L, "Basmati Rice 5kg",
+                "Long-grain aged basmati rice", new BigDecimal("649.00"), 87, "Groceries"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public void appendThroughput() {
+        journal.record(mutation);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(8)
+    public void appendLatency() {
+        journal.record(mutation);
+    }
+}
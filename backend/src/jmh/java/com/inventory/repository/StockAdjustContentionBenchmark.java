@@ -0,0 +1,136 @@
+package com.inventory.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many threads adjusting the stock of one product at once, through the same
+ * conditional UPDATE that ProductRepositoryImpl.adjustStock issues. Measures
+ * throughput under row-lock contention. At the end the stock must equal the
+ * initial stock plus the sum of the deltas that were applied.
+ *
+ * Correctness under contention, including the non-negative guard, is covered
+ * by StockAdjustConcurrencyTest; this benchmark is only about throughput.
+ *
+ * Needs a PostgreSQL database with the application schema:
+ * JMH_JDBC_URL, JMH_JDBC_USER and JMH_JDBC_PASSWORD in the environment.
+ * The build skips this benchmark when JMH_JDBC_URL is not set.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class StockAdjustContentionBenchmark {
+
+    private static final int INITIAL_STOCK = 1_000_000;
+
+    private static final String ADJUST_SQL = "UPDATE product p SET stock = p.stock + ? FROM shop s "
+            + "WHERE p.id = ? AND p.shop_id = s.id AND s.owner_id = ? "
+            + "AND p.stock::bigint + ? BETWEEN 0 AND 2147483647 RETURNING p.stock, p.shop_id";
+
+    private static final long OWNER_ID = -4242L;
+
+    @State(Scope.Benchmark)
+    public static class SharedProduct {
+        long shopId;
+        long productId;
+        final AtomicLong applied = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void create() throws SQLException {
+            try (Connection connection = connect();
+                    Statement statement = connection.createStatement()) {
+                try (ResultSet rs = statement.executeQuery("INSERT INTO shop "
+                        + "(name, address, phone, owner_id, latitude, longitude, open_hours, delivery_option) "
+                        + "VALUES ('jmh', 'jmh', '0', " + OWNER_ID + ", 0, 0, '-', 'PICKUP') RETURNING id")) {
+                    rs.next();
+                    shopId = rs.getLong(1);
+                }
+                try (ResultSet rs = statement.executeQuery("INSERT INTO product (shop_id, name, price, stock) "
+                        + "VALUES (" + shopId + ", 'jmh', 1, " + INITIAL_STOCK + ") RETURNING id")) {
+                    rs.next();
+                    productId = rs.getLong(1);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void verifyAndDelete() throws SQLException {
+            try (Connection connection = connect();
+                    Statement statement = connection.createStatement()) {
+                try (ResultSet rs = statement.executeQuery("SELECT stock FROM product WHERE id = " + productId)) {
+                    rs.next();
+                    long expected = INITIAL_STOCK + applied.get();
+                    if (rs.getInt(1) != expected) {
+                        throw new IllegalStateException("Lost updates: stock is " + rs.getInt(1) + ", expected "
+                                + expected);
+                    }
+                }
+                statement.executeUpdate("DELETE FROM product WHERE id = " + productId);
+                statement.executeUpdate("DELETE FROM shop WHERE id = " + shopId);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadConnection {
+        SharedProduct product;
+        Connection connection;
+        PreparedStatement adjust;
+        int delta = -1;
+
+        @Setup(Level.Trial)
+        public void open(SharedProduct product) throws SQLException {
+            this.product = product;
+            connection = connect();
+            adjust = connection.prepareStatement(ADJUST_SQL);
+            adjust.setLong(2, product.productId);
+            adjust.setLong(3, OWNER_ID);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            adjust.close();
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int adjustStock(ThreadConnection state) throws SQLException {
+        int delta = state.delta;
+        state.adjust.setInt(1, delta);
+        state.adjust.setInt(4, delta);
+        state.delta = -delta;
+        try (ResultSet rs = state.adjust.executeQuery()) {
+            if (!rs.next()) {
+                return -1;
+            }
+            state.product.applied.addAndGet(delta);
+            return rs.getInt(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        String url = System.getenv("JMH_JDBC_URL");
+        if (url == null) {
+            throw new IllegalStateException("Set JMH_JDBC_URL to run StockAdjustContentionBenchmark");
+        }
+        return DriverManager.getConnection(url, System.getenv("JMH_JDBC_USER"), System.getenv("JMH_JDBC_PASSWORD"));
+    }
+}
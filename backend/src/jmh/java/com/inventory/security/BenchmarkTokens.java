@@ -0,0 +1,30 @@
+package com.inventory.security;
+
+import com.inventory.entity.User;
+
+/**
+ * Shared JWT fixtures for the security benchmarks.
+ */
+final class BenchmarkTokens {
+
+    // Long enough (64+ bytes) to select HS512, like the secret in application.properties
+    static final String SECRET =
+            "BenchmarkSecretKeyForJwtSigningThatIsLongEnoughForHmacSha512!@#$%^&*()ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    static final long EXPIRATION_MILLIS = 86_400_000L;
+
+    private BenchmarkTokens() {
+    }
+
+    static JwtUtil jwtUtil(int cacheMaxEntries) {
+        return new JwtUtil(SECRET, EXPIRATION_MILLIS, cacheMaxEntries);
+    }
+
+    static String token(JwtUtil jwtUtil) {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("shop1");
+        user.setRole("SHOP");
+        return jwtUtil.generateToken(user);
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a bearer token into a caller: full parse and signature
+ * check versus a hit in the verified-token cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = BenchmarkTokens.jwtUtil(10_000);
+        uncached = BenchmarkTokens.jwtUtil(0);
+        token = BenchmarkTokens.token(cached);
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public Claims extractClaims() {
+        return uncached.extractClaims(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCached() {
+        return cached.verify(token);
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.dto.ShopResponse;
+import com.inventory.entity.Product;
+import com.inventory.entity.Shop;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping done for every product and shop a service returns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private Shop shop;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        shop = new Shop();
+        shop.setId(7L);
+        shop.setName("Corner Store");
+        shop.setAddress("12 Market Street");
+        shop.setPhone("+1 555 0100");
+        shop.setOwnerId(42L);
+        shop.setLatitude(18.5204);
+        shop.setLongitude(73.8567);
+        shop.setOpenHours("09:00-21:00");
+        shop.setDeliveryOption("DELIVERY");
+
+        product = new Product();
+        product.setId(1001L);
+        product.setShop(shop);
+        product.setName("Basmati Rice 5kg");
+        product.setDescription("Aged long-grain basmati rice");
+        product.setPrice(new BigDecimal("649.00"));
+        product.setStock(120);
+        product.setCategory("Groceries");
+    }
+
+    @Benchmark
+    public ProductResponse productToResponse() {
+        return ProductService.mapToResponse(product);
+    }
+
+    @Benchmark
+    public ShopResponse shopToResponse() {
+        return ShopService.mapToResponse(shop);
+    }
+}
@@ -0,0 +1,131 @@
+package com.inventory.service;
+
+import com.inventory.InventoryApplication;
+import com.inventory.dto.ShopResponse;
+import com.inventory.entity.Shop;
+import com.inventory.repository.ShopRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Shop read endpoints before and after the switch to DTO projections.
+ *
+ * The entity variants repeat what the services used to do: load managed Shop
+ * entities into the persistence context, then copy them into ShopResponse.
+ * The projection variants call the repository queries the services use now.
+ * Both run in a read-only transaction, like the services. Compare ns/op and
+ * the GC profiler's gc.alloc.rate.norm (bytes/op).
+ *
+ * Starts the application against a PostgreSQL database, ideally one seeded
+ * with the loadtest-seed profile: JMH_JDBC_URL, JMH_JDBC_USER and
+ * JMH_JDBC_PASSWORD in the environment. The build skips this benchmark when
+ * JMH_JDBC_URL is not set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ReadPathBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ShopRepository shopRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+
+    private Long ownerId;
+    private Long shopId;
+
+    @Setup
+    public void startApplication() {
+        String url = System.getenv("JMH_JDBC_URL");
+        if (url == null) {
+            throw new IllegalStateException("Set JMH_JDBC_URL to run ReadPathBenchmark");
+        }
+        List<String> args = new ArrayList<>();
+        args.add("--spring.datasource.url=" + url);
+        if (System.getenv("JMH_JDBC_USER") != null) {
+            args.add("--spring.datasource.username=" + System.getenv("JMH_JDBC_USER"));
+        }
+        if (System.getenv("JMH_JDBC_PASSWORD") != null) {
+            args.add("--spring.datasource.password=" + System.getenv("JMH_JDBC_PASSWORD"));
+        }
+        args.add("--server.port=0");
+        args.add("--logging.level.root=WARN");
+        context = new SpringApplicationBuilder(InventoryApplication.class).run(args.toArray(String[]::new));
+
+        shopRepository = context.getBean(ShopRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        // The owner with the most shops, and one of their shops
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Long[]> rows = jdbc.query("SELECT owner_id, min(id) FROM shop GROUP BY owner_id "
+                + "ORDER BY count(*) DESC LIMIT 1", (rs, i) -> new Long[] { rs.getLong(1), rs.getLong(2) });
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("ReadPathBenchmark needs at least one shop in the database");
+        }
+        ownerId = rows.get(0)[0];
+        shopId = rows.get(0)[1];
+    }
+
+    @TearDown
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ShopResponse> shopsByOwnerEntities() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT s FROM Shop s WHERE s.ownerId = :ownerId ORDER BY s.id", Shop.class)
+                .setParameter("ownerId", ownerId)
+                .getResultStream()
+                .map(ShopService::mapToResponse)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ShopResponse> shopsByOwnerProjection() {
+        return readOnly.execute(status -> shopRepository.findResponsesByOwnerId(ownerId));
+    }
+
+    @Benchmark
+    public ShopResponse shopByIdEntity() {
+        return readOnly.execute(status -> ShopService.mapToResponse(entityManager.find(Shop.class, shopId)));
+    }
+
+    @Benchmark
+    public ShopResponse shopByIdProjection() {
+        return readOnly.execute(status -> shopRepository.findResponseById(shopId).orElseThrow());
+    }
+
+    @Benchmark
+    public List<ShopResponse> allShopsEntities() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT s FROM Shop s ORDER BY s.id", Shop.class)
+                .getResultStream()
+                .map(ShopService::mapToResponse)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ShopResponse> allShopsProjection() {
+        return readOnly.execute(status -> shopRepository.findAllResponses());
+    }
+}
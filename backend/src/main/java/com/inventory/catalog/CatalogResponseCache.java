@@ -0,0 +1,230 @@
+package com.inventory.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of shop catalog responses stored as already encoded JSON, plus a gzip
+ * copy when that is smaller.
+ *
+ * Each entry remembers the catalog ETag it was built under and is served only
+ * while that ETag is still current, so every write that bumps the catalog
+ * version in {@link CatalogVersions} invalidates the shop's entries without
+ * any extra bookkeeping. Outdated entries are simply aged out.
+ *
+ * Entries are weighed by their byte size. Caffeine's W-TinyLFU policy only
+ * admits a new entry if it is likely to be read more often than the one it
+ * would evict, so one-off pages deep in a catalog do not push out the first
+ * pages of popular shops.
+ *
+ * The gzip body is a different representation from the JSON one, so it is
+ * sent under its own strong ETag, {@link #gzipEtag}.
+ */
+@Component
+public class CatalogResponseCache {
+
+    private final Cache<CacheKey, EncodedResponse> cache;
+    private final ObjectMapper objectMapper;
+    private final int gzipMinBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder serializationBytesSaved = new LongAdder();
+    private final LongAdder compressionBytesSaved = new LongAdder();
+
+    public CatalogResponseCache(ObjectMapper objectMapper,
+            @Value("${app.catalog-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${app.catalog-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((CacheKey key, EncodedResponse value) -> value.weight())
+                .recordStats()
+                .build();
+
+        FunctionCounter.builder("catalog.response.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("catalog.response.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("catalog.response.cache.hit.ratio", this, CatalogResponseCache::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("catalog.response.cache.entries", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+        Gauge.builder("catalog.response.cache.bytes", cache,
+                c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("catalog.response.cache.evictions", cache, c -> c.stats().evictionCount())
+                .register(meterRegistry);
+        // Bytes that did not have to be serialized again, and bytes not sent thanks to gzip
+        FunctionCounter.builder("catalog.response.cache.bytes.saved", serializationBytesSaved, LongAdder::sum)
+                .tag("reason", "serialization")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("catalog.response.cache.bytes.saved", compressionBytesSaved, LongAdder::sum)
+                .tag("reason", "compression")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the encoded response for one view of a shop's catalog, building
+     * it on a miss.
+     *
+     * @param shopId  The shop whose catalog is read
+     * @param variant Identifies the view (whole list, or page parameters)
+     * @param etag    Current catalog ETag, taken before the loader reads anything
+     * @param loader  Reads the response body from the database
+     */
+    public EncodedResponse get(Long shopId, String variant, String etag, Supplier<Object> loader) {
+        CacheKey key = new CacheKey(shopId, variant);
+        EncodedResponse cached = cache.getIfPresent(key);
+        if (cached != null && cached.etag.equals(etag)) {
+            hits.increment();
+            serializationBytesSaved.add(cached.json.length);
+            return cached;
+        }
+        misses.increment();
+
+        // Built from the primary: a lagging replica could store old rows under the new ETag
+        EncodedResponse encoded = encode(etag, ReplicaRoutingDataSource.onPrimary(loader));
+        cache.put(key, encoded);
+        return encoded;
+    }
+
+    /**
+     * Picks the body to send and records the bytes saved by compression.
+     *
+     * @param acceptEncoding The request's Accept-Encoding header, may be null
+     * @return the gzip body if the client accepts it and one was stored, otherwise null
+     */
+    public byte[] gzipBodyFor(EncodedResponse response, String acceptEncoding) {
+        if (response.gzip == null || !acceptsGzip(acceptEncoding)) {
+            return null;
+        }
+        compressionBytesSaved.add(response.json.length - response.gzip.length);
+        return response.gzip;
+    }
+
+    /**
+     * The strong ETag of the gzip body stored under a catalog ETag.
+     */
+    public static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed, or covered by
+     * {@code *}, with a non-zero q-value. An explicit {@code gzip;q=0} refuses
+     * it even when {@code *} is accepted.
+     *
+     * @param acceptEncoding The header value, may be null
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] params = element.split(";");
+            String coding = params[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzip = Math.max(gzip, quality(params));
+            } else if (coding.equals("*")) {
+                any = Math.max(any, quality(params));
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.length() > 2 && param.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    double q = Double.parseDouble(param.substring(2).trim());
+                    return q >= 0 && q <= 1 ? q : 0;
+                } catch (NumberFormatException e) {
+                    // A malformed weight does not grant the coding
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private EncodedResponse encode(String etag, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog response", e);
+        }
+        byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+        if (gzip != null && gzip.length >= json.length) {
+            gzip = null;
+        }
+        return new EncodedResponse(etag, json, gzip);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private record CacheKey(Long shopId, String variant) {
+    }
+
+    /**
+     * One cached response body in its encoded forms.
+     */
+    @Getter
+    public static final class EncodedResponse {
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private EncodedResponse(String etag, byte[] json, byte[] gzip) {
+            this.etag = etag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        private int weight() {
+            // Rough per-entry overhead for the key, ETag and object headers
+            return 128 + json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
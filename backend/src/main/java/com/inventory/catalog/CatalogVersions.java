@@ -0,0 +1,69 @@
+package com.inventory.catalog;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version numbers for each shop's product catalog and shop details,
+ * used to build strong ETags.
+ *
+ * Versions come from one counter, so a version is never reused: a shop seen
+ * for the first time (or forgotten after a delete) gets a fresh one, which no
+ * client can hold yet. Writers bump the version after their transaction
+ * commits. A matching If-None-Match can then be answered with 304 without
+ * reading the product table.
+ *
+ * ETags are asked for before the shop is known to exist, so both maps are
+ * bounded. A shop that is evicted is forgotten like a deleted one: its next
+ * ETag is fresh, and its clients reload once.
+ */
+@Component
+public class CatalogVersions {
+
+    // Distinguishes ETags issued by different runs of the application
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<Long, Long> catalogVersions;
+    private final Cache<Long, Long> shopVersions;
+
+    public CatalogVersions(@Value("${app.catalog-versions.max-shops:100000}") long maxShops) {
+        this.catalogVersions = Caffeine.newBuilder().maximumSize(maxShops).build();
+        this.shopVersions = Caffeine.newBuilder().maximumSize(maxShops).build();
+    }
+
+    /**
+     * Strong ETag for the shop's product listing.
+     */
+    public String catalogEtag(Long shopId) {
+        long version = catalogVersions.get(shopId, id -> sequence.incrementAndGet());
+        return "\"c" + shopId + '-' + epoch + '-' + version + '"';
+    }
+
+    /**
+     * Strong ETag for the shop's own details.
+     */
+    public String shopEtag(Long shopId) {
+        long version = shopVersions.get(shopId, id -> sequence.incrementAndGet());
+        return "\"s" + shopId + '-' + epoch + '-' + version + '"';
+    }
+
+    /**
+     * Records that the shop's products changed.
+     */
+    public void catalogChanged(Long shopId) {
+        catalogVersions.put(shopId, sequence.incrementAndGet());
+    }
+
+    /**
+     * Records that the shop was deleted, invalidating every ETag issued for it.
+     */
+    public void shopRemoved(Long shopId) {
+        catalogVersions.invalidate(shopId);
+        shopVersions.invalidate(shopId);
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventory.catalog;
+
+import com.inventory.dto.ProductResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong ETags for single products, derived from their content so they need
+ * no extra column and are identical on every instance.
+ */
+public final class ProductEtags {
+
+    private ProductEtags() {
+    }
+
+    public static String of(ProductResponse product) {
+        String content = product.getId() + "\u0000" + product.getShopId() + "\u0000" + product.getName()
+                + "\u0000" + product.getDescription()
+                + "\u0000" + (product.getPrice() != null ? product.getPrice().stripTrailingZeros().toPlainString() : null)
+                + "\u0000" + product.getStock() + "\u0000" + product.getCategory();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return "\"p" + product.getId() + '-' + HexFormat.of().formatHex(digest, 0, 8) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Whether an If-Match header value matches the product's current ETag.
+     */
+    public static boolean matches(String ifMatch, ProductResponse current) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        String etag = of(current);
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
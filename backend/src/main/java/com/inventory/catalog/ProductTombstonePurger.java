@@ -0,0 +1,64 @@
+package com.inventory.catalog;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compacts the product change feed by deleting old tombstones.
+ *
+ * The newest purged change is recorded as the tombstone horizon: a client
+ * whose cursor does not reach past it could have missed a delete, so it is
+ * sent a full snapshot instead of changes. Running on several instances at
+ * once is harmless.
+ */
+@Component
+@Slf4j
+public class ProductTombstonePurger {
+
+    private static final String PURGE_SQL = "WITH purged AS ("
+            + "DELETE FROM product_tombstone WHERE deleted_at < ? RETURNING change_xid) "
+            + "UPDATE product_tombstone_horizon "
+            + "SET purged_through = GREATEST(purged_through, (SELECT max(change_xid) FROM purged)) "
+            + "WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+    private final ScheduledExecutorService purger;
+
+    public ProductTombstonePurger(JdbcTemplate jdbcTemplate,
+            @Value("${app.product-changes.tombstone-retention-hours:168}") long retentionHours,
+            @Value("${app.product-changes.purge-interval-minutes:60}") long purgeIntervalMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = Duration.ofHours(retentionHours);
+        this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-tombstone-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purge, purgeIntervalMinutes, purgeIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    void purge() {
+        try {
+            // Outside a transaction, so it runs on the primary
+            jdbcTemplate.update(PURGE_SQL, new Timestamp(System.currentTimeMillis() - retention.toMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Could not purge product tombstones", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+}
@@ -0,0 +1,169 @@
+package com.inventory.catalog;
+
+import com.inventory.dto.CategorySummaryResponse;
+import com.inventory.dto.ShopSummaryResponse;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Running inventory totals of one shop, overall and per category.
+ *
+ * The price, stock and category of every product are kept alongside the
+ * totals, so any change can be applied as a delta knowing only the product
+ * ID: the old values are subtracted and the new ones added.
+ *
+ * Changes carry the version of the write that made them and may arrive in any
+ * order. Each product remembers the newest version seen for its stock and for
+ * its other fields, and older values are ignored. Deleted products leave a
+ * tombstone so a late update cannot bring them back.
+ */
+class ShopInventory {
+
+    private final int lowStockThreshold;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<Long, Item> items = new HashMap<>();
+    private final Set<Long> removed = new HashSet<>();
+    private final Totals overall = new Totals();
+    // Null key for products without a category
+    private final Map<String, Totals> categories = new HashMap<>();
+
+    ShopInventory(int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    /**
+     * Adds the product, or replaces whichever of its values are older than {@code version}.
+     */
+    void put(Long productId, long version, BigDecimal price, int stock, String category) {
+        lock.lock();
+        try {
+            if (removed.contains(productId)) {
+                return;
+            }
+            Item previous = items.get(productId);
+            if (previous == null) {
+                replace(null, productId, new Item(price, stock, category, version, version));
+            } else if (version > previous.version || version > previous.stockVersion) {
+                boolean fields = version > previous.version;
+                boolean stockNewer = version > previous.stockVersion;
+                replace(previous, productId, new Item(fields ? price : previous.price,
+                        stockNewer ? stock : previous.stock, fields ? category : previous.category,
+                        Math.max(version, previous.version), Math.max(version, previous.stockVersion)));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the product's stock unless a newer value is already known.
+     *
+     * @return false if the product is unknown: its creation has not been
+     *         applied yet, so the stock cannot be placed
+     */
+    boolean setStock(Long productId, long version, int stock) {
+        lock.lock();
+        try {
+            if (removed.contains(productId)) {
+                return true;
+            }
+            Item previous = items.get(productId);
+            if (previous == null) {
+                return false;
+            }
+            if (version > previous.stockVersion) {
+                replace(previous, productId, new Item(previous.price, stock, previous.category, previous.version,
+                        version));
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(Long productId) {
+        lock.lock();
+        try {
+            removed.add(productId);
+            Item previous = items.remove(productId);
+            if (previous != null) {
+                apply(previous, -1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return items.size() + removed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    ShopSummaryResponse toResponse(Long shopId) {
+        lock.lock();
+        try {
+            List<CategorySummaryResponse> breakdown = new ArrayList<>(categories.size());
+            categories.forEach((category, totals) -> breakdown.add(new CategorySummaryResponse(category,
+                    totals.skuCount, totals.stock, totals.value, totals.lowStock, totals.outOfStock)));
+            breakdown.sort(Comparator.comparing(CategorySummaryResponse::getCategory,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            return new ShopSummaryResponse(shopId, overall.skuCount, overall.stock, overall.value,
+                    lowStockThreshold, overall.lowStock, overall.outOfStock, breakdown);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replace(Item previous, Long productId, Item updated) {
+        items.put(productId, updated);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(updated, 1);
+    }
+
+    private void apply(Item item, int sign) {
+        overall.apply(item, sign);
+        Totals totals = categories.computeIfAbsent(item.category, c -> new Totals());
+        totals.apply(item, sign);
+        if (totals.skuCount == 0) {
+            categories.remove(item.category);
+        }
+    }
+
+    private record Item(BigDecimal price, int stock, String category, long version, long stockVersion) {
+    }
+
+    private final class Totals {
+        int skuCount;
+        long stock;
+        BigDecimal value = BigDecimal.ZERO;
+        int lowStock;
+        int outOfStock;
+
+        void apply(Item item, int sign) {
+            skuCount += sign;
+            stock += (long) sign * item.stock;
+            BigDecimal itemValue = item.price.multiply(BigDecimal.valueOf(item.stock));
+            value = sign > 0 ? value.add(itemValue) : value.subtract(itemValue);
+            if (item.stock <= 0) {
+                outOfStock += sign;
+            } else if (item.stock <= lowStockThreshold) {
+                lowStock += sign;
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.inventory.catalog;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.datasource.ReplicaRoutingDataSource;
+import com.inventory.dto.ProductResponse;
+import com.inventory.dto.ShopSummaryResponse;
+import com.inventory.dto.StockLevelResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-shop inventory aggregates (SKU count, stock value, low-stock counts and
+ * a per-category breakdown), kept current with deltas from every product write.
+ *
+ * A shop's aggregate is built with one query the first time it is asked for.
+ * After that each write adjusts it in O(1) once its transaction commits, so a
+ * summary never scans the catalog again. Shops are evicted by total product
+ * count when the cache is full.
+ *
+ * Writers record their change inside the transaction. Until it completes, the
+ * shop's stripe counts as having a write in flight, and any aggregate built
+ * meanwhile is returned but not cached, because it might be missing the
+ * change or already include it.
+ *
+ * Changes are applied as transactions complete, which is not necessarily the
+ * order they committed in. So every change carries the product's new values,
+ * never a delta, and a version drawn from a database sequence while the
+ * writer holds the product's row lock: a later writer of the same row can
+ * only draw a higher one, and older values are ignored. A change that cannot
+ * be ordered drops the shop, which is rebuilt on the next request.
+ */
+@Component
+public class ShopInventorySummaries {
+
+    private static final int STRIPES = 1024;
+
+    private static final String LOAD_SQL = "SELECT id, price, stock, category FROM product WHERE shop_id = ?";
+
+    static final String NEXT_VERSION_SQL = "SELECT nextval('product_write_version')";
+
+    // Loaded values and creations are older than any later write of the product
+    private static final long BASE_VERSION = 0;
+    // The shop was not cached when the change was recorded, so no version was drawn
+    private static final long UNVERSIONED = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int lowStockThreshold;
+    private final Cache<Long, ShopInventory> cache;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+    private final AtomicIntegerArray inFlight = new AtomicIntegerArray(STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ShopInventorySummaries(JdbcTemplate jdbcTemplate,
+            @Value("${app.inventory-summary.low-stock-threshold:5}") int lowStockThreshold,
+            @Value("${app.inventory-summary.max-products:2000000}") long maxProducts,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lowStockThreshold = lowStockThreshold;
+        // Weighed by product count when the shop is loaded
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxProducts)
+                .weigher((Long shopId, ShopInventory inventory) -> Math.max(1, inventory.size()))
+                .build();
+
+        FunctionCounter.builder("shop.inventory.summary.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("shop.inventory.summary.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("shop.inventory.summary.shops", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the shop's current totals, building them on a miss.
+     * The caller must have checked that the shop exists.
+     */
+    public ShopSummaryResponse summarize(Long shopId) {
+        ShopInventory inventory = cache.getIfPresent(shopId);
+        if (inventory != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            inventory = load(shopId);
+        }
+        return inventory.toResponse(shopId);
+    }
+
+    /**
+     * Records a product created in the current transaction.
+     */
+    public void productCreated(Long shopId, Long productId, BigDecimal price, int stock, String category) {
+        record(shopId, () -> BASE_VERSION, (inventory, version) -> {
+            inventory.put(productId, version, price, stock, category);
+            return true;
+        });
+    }
+
+    /**
+     * Records a batch of products created in one shop, as a single change.
+     */
+    public void productsCreated(Long shopId, List<ProductResponse> products) {
+        record(shopId, () -> BASE_VERSION, (inventory, version) -> {
+            products.forEach(p -> inventory.put(p.getId(), version, p.getPrice(), p.getStock(), p.getCategory()));
+            return true;
+        });
+    }
+
+    /**
+     * Records new values for an existing product. The caller must hold the
+     * product's row lock.
+     */
+    public void productSaved(Long shopId, Long productId, BigDecimal price, int stock, String category) {
+        record(shopId, nextVersion(), (inventory, version) -> {
+            inventory.put(productId, version, price, stock, category);
+            return true;
+        });
+    }
+
+    /**
+     * Records new values for existing products of one shop, as a single change.
+     * The caller must hold the products' row locks.
+     */
+    public void productsSaved(Long shopId, List<ProductResponse> products) {
+        record(shopId, nextVersion(), (inventory, version) -> {
+            products.forEach(p -> inventory.put(p.getId(), version, p.getPrice(), p.getStock(), p.getCategory()));
+            return true;
+        });
+    }
+
+    /**
+     * Records a product's stock after a write. The caller must hold the
+     * product's row lock.
+     */
+    public void stockChanged(StockLevelResponse level) {
+        stocksChanged(List.of(level));
+    }
+
+    /**
+     * Records the stock of several products after a write, drawing one version
+     * for all of them. The caller must hold every product's row lock.
+     */
+    public void stocksChanged(Collection<StockLevelResponse> levels) {
+        LongSupplier version = nextVersion();
+        Map<Long, List<StockLevelResponse>> byShop = levels.stream()
+                .collect(Collectors.groupingBy(StockLevelResponse::getShopId));
+        byShop.forEach((shopId, shopLevels) -> record(shopId, version, (inventory, v) -> {
+            boolean applied = true;
+            for (StockLevelResponse level : shopLevels) {
+                applied &= inventory.setStock(level.getProductId(), v, level.getStock());
+            }
+            return applied;
+        }));
+    }
+
+    /**
+     * Records deleted products.
+     *
+     * @param shopIds    Every shop the products belonged to
+     * @param productIds The deleted products
+     */
+    public void productsRemoved(Collection<Long> shopIds, Collection<Long> productIds) {
+        for (Long shopId : shopIds) {
+            record(shopId, () -> BASE_VERSION, (inventory, version) -> {
+                productIds.forEach(inventory::remove);
+                return true;
+            });
+        }
+    }
+
+    public void shopRemoved(Long shopId) {
+        record(shopId, () -> BASE_VERSION, (inventory, version) -> false);
+    }
+
+    /**
+     * Applies the change once the current transaction commits, or right away
+     * outside a transaction. The stripe is marked as having a write in flight
+     * until then.
+     */
+    private void record(Long shopId, LongSupplier versions, Change change) {
+        int stripe = stripe(shopId);
+        inFlight.incrementAndGet(stripe);
+        stamps.incrementAndGet(stripe);
+        long version;
+        try {
+            // Only a cached shop needs the version. A shop not cached now can only
+            // become cached once this write has completed.
+            version = cache.getIfPresent(shopId) != null ? versions.getAsLong() : UNVERSIONED;
+        } catch (RuntimeException e) {
+            completed(stripe);
+            throw e;
+        }
+        Runnable apply = () -> {
+            ShopInventory inventory = cache.getIfPresent(shopId);
+            if (inventory != null && (version == UNVERSIONED || !change.applyTo(inventory, version))) {
+                cache.asMap().remove(shopId, inventory);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                apply.run();
+            } finally {
+                completed(stripe);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply.run();
+                    }
+                } finally {
+                    completed(stripe);
+                }
+            }
+        });
+    }
+
+    /**
+     * Draws a write version on first use, so a call that touches no cached
+     * shop costs no round-trip.
+     */
+    private LongSupplier nextVersion() {
+        long[] drawn = { UNVERSIONED };
+        return () -> {
+            if (drawn[0] == UNVERSIONED) {
+                drawn[0] = jdbcTemplate.queryForObject(NEXT_VERSION_SQL, Long.class);
+            }
+            return drawn[0];
+        };
+    }
+
+    private void completed(int stripe) {
+        inFlight.decrementAndGet(stripe);
+        stamps.incrementAndGet(stripe);
+    }
+
+    private ShopInventory load(Long shopId) {
+        int stripe = stripe(shopId);
+        long stamp = stamps.get(stripe);
+        boolean quiet = inFlight.get(stripe) == 0;
+
+        ShopInventory inventory = new ShopInventory(lowStockThreshold);
+        // Cached aggregates are then kept current by deltas, so they must start from the primary
+        ReplicaRoutingDataSource.onPrimary(() -> {
+            jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> inventory.put(rs.getLong(1), BASE_VERSION,
+                    rs.getBigDecimal(2), rs.getInt(3), rs.getString(4)), shopId);
+            return null;
+        });
+
+        if (quiet && stamps.get(stripe) == stamp) {
+            cache.put(shopId, inventory);
+            // A write that started after the check above would not reach this copy
+            if (stamps.get(stripe) != stamp) {
+                cache.asMap().remove(shopId, inventory);
+            }
+        }
+        return inventory;
+    }
+
+    private static int stripe(Long shopId) {
+        return (int) (shopId & (STRIPES - 1));
+    }
+
+    /**
+     * A change to a cached shop's aggregate.
+     */
+    @FunctionalInterface
+    private interface Change {
+
+        /**
+         * @return false if the change cannot be applied in order and the shop must be rebuilt
+         */
+        boolean applyTo(ShopInventory inventory, long version);
+    }
+}
@@ -0,0 +1,188 @@
+package com.inventory.config;
+
+import com.inventory.repository.IdBlocks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds a production-sized data set for load testing: {@code owners} shop
+ * owners with {@code shopsPerOwner} shops each and {@code productsPerShop}
+ * products per shop on average.
+ *
+ * Sizes follow a Zipf distribution, so a few owners run many shops and a few
+ * shops carry most of the products, as in real marketplaces. Shops are
+ * clustered around a handful of city centres. The same seed always produces
+ * the same data, so runs are comparable.
+ *
+ * Only active with the {@code loadtest-seed} profile. Owners are named
+ * {@code loadowner<n>} and share one password; seeding is skipped if they
+ * already exist.
+ */
+@Component
+@Profile("loadtest-seed")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final double[][] CITY_CENTRES = {
+            { 18.5204, 73.8567 }, { 19.0760, 72.8777 }, { 12.9716, 77.5946 }, { 28.6139, 77.2090 },
+            { 17.3850, 78.4867 }, { 13.0827, 80.2707 }, { 22.5726, 88.3639 }, { 23.0225, 72.5714 } };
+
+    private static final String[] CATEGORIES = {
+            "Groceries", "Beverages", "Snacks", "Household", "Personal Care", "Dairy", "Bakery",
+            "Frozen", "Stationery", "Electronics" };
+
+    private static final String[] ADJECTIVES = {
+            "Organic", "Fresh", "Premium", "Classic", "Spicy", "Sweet", "Roasted", "Whole", "Light", "Family" };
+
+    private static final String[] NOUNS = {
+            "Rice", "Tea", "Coffee", "Biscuits", "Soap", "Shampoo", "Milk", "Bread", "Butter", "Juice",
+            "Noodles", "Chips", "Detergent", "Paneer", "Notebook", "Batteries", "Oil", "Flour", "Sugar", "Lentils" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.seed.owners:1000}")
+    private int owners;
+
+    @Value("${app.seed.shops-per-owner:3}")
+    private int shopsPerOwner;
+
+    @Value("${app.seed.products-per-shop:200}")
+    private int productsPerShop;
+
+    @Value("${app.seed.skew:1.1}")
+    private double skew;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${app.seed.password:loadtest123}")
+    private String password;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE username LIKE 'loadowner%'", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Load-test data already present ({} owners), skipping seeding", existing);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Random random = new Random(randomSeed);
+
+        // One hash for everyone: hashing per owner would dominate seeding time
+        String hash = passwordEncoder.encode(password);
+        long[] ownerIds = reserveIds("users", owners);
+        List<Object[]> userRows = new ArrayList<>(owners);
+        for (int i = 0; i < owners; i++) {
+            userRows.add(new Object[] { ownerIds[i], "loadowner" + (i + 1), hash, "SHOP" });
+        }
+        insert("INSERT INTO users (id, username, password, role) VALUES (?, ?, ?, ?)", userRows);
+
+        int[] shopCounts = zipfCounts(owners, (long) owners * shopsPerOwner, random);
+        int totalShops = sum(shopCounts);
+        long[] shopIds = reserveIds("shop", totalShops);
+        List<Object[]> shopRows = new ArrayList<>(totalShops);
+        int s = 0;
+        for (int o = 0; o < owners; o++) {
+            for (int k = 0; k < shopCounts[o]; k++, s++) {
+                double[] centre = CITY_CENTRES[random.nextInt(CITY_CENTRES.length)];
+                // About 5 km spread around the centre
+                double lat = centre[0] + random.nextGaussian() * 0.05;
+                double lon = centre[1] + random.nextGaussian() * 0.05;
+                shopRows.add(new Object[] { shopIds[s], "Shop " + (s + 1), (s + 1) + " Market Road",
+                        "+91 90000 " + String.format("%05d", s % 100_000), ownerIds[o], lat, lon,
+                        "09:00-21:00", random.nextBoolean() ? "DELIVERY" : "PICKUP" });
+            }
+        }
+        insert("INSERT INTO shop (id, name, address, phone, owner_id, latitude, longitude, open_hours, "
+                + "delivery_option) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", shopRows);
+
+        int[] productCounts = zipfCounts(totalShops, (long) totalShops * productsPerShop, random);
+        int totalProducts = sum(productCounts);
+        long[] productIds = reserveIds("product", totalProducts);
+        List<Object[]> productRows = new ArrayList<>(BATCH_SIZE);
+        int p = 0;
+        for (int i = 0; i < totalShops; i++) {
+            for (int k = 0; k < productCounts[i]; k++, p++) {
+                String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + ' '
+                        + NOUNS[random.nextInt(NOUNS.length)] + ' ' + (k + 1);
+                // Log-normal prices: mostly cheap items with a long tail
+                BigDecimal price = BigDecimal.valueOf(Math.exp(4 + random.nextGaussian()))
+                        .setScale(2, RoundingMode.HALF_UP);
+                productRows.add(new Object[] { productIds[p], shopIds[i], name, "Synthetic product " + (p + 1),
+                        price, random.nextInt(500), CATEGORIES[random.nextInt(CATEGORIES.length)] });
+                if (productRows.size() == BATCH_SIZE) {
+                    insert("INSERT INTO product (id, shop_id, name, description, price, stock, category) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?)", productRows);
+                    productRows.clear();
+                }
+            }
+        }
+        insert("INSERT INTO product (id, shop_id, name, description, price, stock, category) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", productRows);
+
+        log.info("Seeded {} owners, {} shops and {} products in {} ms", owners, totalShops, totalProducts,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Splits {@code total} over {@code n} buckets with Zipf weights
+     * (rank^-skew), at least one per bucket. Ranks are shuffled so the large
+     * buckets are not simply the lowest IDs.
+     */
+    private int[] zipfCounts(int n, long total, Random random) {
+        double[] weights = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, skew);
+            sum += weights[i];
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double tmp = weights[i];
+            weights[i] = weights[j];
+            weights[j] = tmp;
+        }
+        int[] counts = new int[n];
+        for (int i = 0; i < n; i++) {
+            counts[i] = (int) Math.max(1, Math.round(total * weights[i] / sum));
+        }
+        return counts;
+    }
+
+    private long[] reserveIds(String table, int count) {
+        return IdBlocks.reserve(jdbcTemplate, table, count);
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int v : values) {
+            total += v;
+        }
+        return total;
+    }
+}
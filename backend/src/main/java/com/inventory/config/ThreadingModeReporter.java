@@ -0,0 +1,33 @@
+package com.inventory.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs whether requests are served on virtual or platform threads.
+ * Virtual threads need a Java 21 runtime; on older runtimes
+ * spring.threads.virtual.enabled is silently ignored by Spring Boot, so that
+ * case is called out explicitly.
+ */
+@Component
+@Slf4j
+public class ThreadingModeReporter {
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        int javaVersion = Runtime.version().feature();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests on virtual threads (Java {})", javaVersion);
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "serving requests on platform threads", javaVersion);
+        } else {
+            log.info("Serving requests on platform threads (Java {})", javaVersion);
+        }
+    }
+}
@@ -15,7 +15,9 @@ public abstract class BaseController {
     protected final JwtUtil jwtUtil;
 
     /**
-     * Helper method to extract user ID from authentication token.
+     * Helper method to extract user ID from the verified JWT principal.
+     * The token is already verified by JwtAuthenticationFilter, so this does
+     * not parse it again.
      * Throws UnauthorizedException if user ID cannot be extracted.
      * 
      * @param authentication Spring Security authentication object
@@ -0,0 +1,55 @@
+package com.inventory.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a stream of rows to the response as a single JSON array, one element
+ * at a time, flushing periodically so clients start receiving data before the
+ * last row has been read.
+ */
+@Component
+public class JsonArrayStreamer {
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public JsonArrayStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Flushing is batched below instead of after every row
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @param source called with a sink; it must push every row into it before returning
+     */
+    public <T> StreamingResponseBody stream(Consumer<Consumer<T>> source) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                int[] written = {0};
+                source.accept(row -> {
+                    try {
+                        rowWriter.writeValue(generator, row);
+                        if (++written[0] % FLUSH_EVERY_ROWS == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+}
@@ -1,16 +1,31 @@
 package com.inventory.controller;
 
+import com.inventory.catalog.CatalogResponseCache;
+import com.inventory.catalog.CatalogVersions;
+import com.inventory.catalog.ProductEtags;
+import com.inventory.dto.ProductBatchUpdateRequest;
+import com.inventory.dto.ProductBatchUpdateResponse;
+import com.inventory.dto.ProductChangesResponse;
+import com.inventory.dto.ProductImportResponse;
 import com.inventory.dto.ProductRequest;
 import com.inventory.dto.ProductResponse;
+import com.inventory.dto.StockAdjustRequest;
+import com.inventory.dto.StockLevelResponse;
 import com.inventory.security.JwtUtil;
+import com.inventory.service.ProductBatchUpdateService;
+import com.inventory.service.ProductImportService;
 import com.inventory.service.ProductService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,10 +33,20 @@ import java.util.List;
 public class ProductController extends BaseController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductBatchUpdateService productBatchUpdateService;
+    private final CatalogVersions catalogVersions;
+    private final CatalogResponseCache catalogResponseCache;
 
-    public ProductController(JwtUtil jwtUtil, ProductService productService) {
+    public ProductController(JwtUtil jwtUtil, ProductService productService,
+            ProductImportService productImportService, ProductBatchUpdateService productBatchUpdateService,
+            CatalogVersions catalogVersions, CatalogResponseCache catalogResponseCache) {
         super(jwtUtil);
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productBatchUpdateService = productBatchUpdateService;
+        this.catalogVersions = catalogVersions;
+        this.catalogResponseCache = catalogResponseCache;
     }
 
     @PostMapping("/shops/{shopId}/products")
@@ -33,25 +58,126 @@ public class ProductController extends BaseController {
 
         Long userId = extractUserId(authentication);
         ProductResponse response = productService.addProduct(shopId, request, userId);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ProductEtags.of(response)).body(response);
+    }
+
+    @PostMapping(value = "/shops/{shopId}/products/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('SHOP')")
+    public ResponseEntity<ProductImportResponse> importProductsCsv(
+            @PathVariable Long shopId,
+            InputStream body,
+            Authentication authentication) {
+
+        Long userId = extractUserId(authentication);
+        ProductImportResponse response = productImportService.importProducts(
+                shopId, body, ProductImportService.Format.CSV, userId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/shops/{shopId}/products/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('SHOP')")
+    public ResponseEntity<ProductImportResponse> importProductsNdjson(
+            @PathVariable Long shopId,
+            InputStream body,
+            Authentication authentication) {
+
+        Long userId = extractUserId(authentication);
+        ProductImportResponse response = productImportService.importProducts(
+                shopId, body, ProductImportService.Format.NDJSON, userId);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/shops/{shopId}/products")
     @PreAuthorize("hasAnyRole('SHOP', 'ADMIN')")
-    public ResponseEntity<List<ProductResponse>> getProductsByShop(@PathVariable Long shopId) {
-        List<ProductResponse> products = productService.getProductsByShop(shopId);
+    public ResponseEntity<byte[]> getProductsByShop(@PathVariable Long shopId, WebRequest webRequest) {
+        // Taken before the read: a write racing with it leaves the tag older than the body, never newer
+        String etag = catalogVersions.catalogEtag(shopId);
+        if (webRequest.checkNotModified(heldCatalogEtag(etag, webRequest))) {
+            return null;
+        }
+        CatalogResponseCache.EncodedResponse body = catalogResponseCache.get(shopId, "all", etag,
+                () -> productService.getProductsByShop(shopId));
+        return encodedCatalog(body, webRequest);
+    }
+
+    @GetMapping("/shops/{shopId}/products/page")
+    @PreAuthorize("hasAnyRole('SHOP', 'ADMIN')")
+    public ResponseEntity<byte[]> getProductsPage(
+            @PathVariable Long shopId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            WebRequest webRequest) {
+        String etag = catalogVersions.catalogEtag(shopId);
+        if (webRequest.checkNotModified(heldCatalogEtag(etag, webRequest))) {
+            return null;
+        }
+        String variant = "page:" + sort + ':' + direction + ':' + size + ':' + cursor;
+        CatalogResponseCache.EncodedResponse body = catalogResponseCache.get(shopId, variant, etag,
+                () -> productService.getProductsPage(shopId, sort, direction, cursor, size));
+        return encodedCatalog(body, webRequest);
+    }
+
+    @GetMapping("/shops/{shopId}/products/changes")
+    @PreAuthorize("hasAnyRole('SHOP', 'ADMIN')")
+    public ResponseEntity<ProductChangesResponse> getProductChanges(
+            @PathVariable Long shopId,
+            @RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(productService.getProductChanges(shopId, since));
+    }
+
+    @GetMapping("/products/search")
+    @PreAuthorize("hasAnyRole('SHOP', 'ADMIN')")
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long shopId,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<ProductResponse> products = productService.searchProducts(q, category, shopId, limit);
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/products/{id}")
+    @PreAuthorize("hasAnyRole('SHOP', 'ADMIN')")
+    public ResponseEntity<ProductResponse> getProduct(@PathVariable Long id) {
+        ProductResponse response = productService.getProductById(id);
+        return ResponseEntity.ok().eTag(ProductEtags.of(response)).body(response);
+    }
+
+    @PatchMapping("/products/batch")
+    @PreAuthorize("hasRole('SHOP')")
+    public ResponseEntity<ProductBatchUpdateResponse> updateProducts(
+            @Valid @RequestBody ProductBatchUpdateRequest request,
+            Authentication authentication) {
+
+        Long userId = extractUserId(authentication);
+        ProductBatchUpdateResponse response = productBatchUpdateService.updateProducts(request, userId);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/products/{id}")
     @PreAuthorize("hasRole('SHOP')")
     public ResponseEntity<ProductResponse> updateProduct(
             @PathVariable Long id,
             @Valid @RequestBody ProductRequest request,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            Authentication authentication) {
+
+        Long userId = extractUserId(authentication);
+        ProductResponse response = productService.updateProduct(id, request, userId, ifMatch);
+        return ResponseEntity.ok().eTag(ProductEtags.of(response)).body(response);
+    }
+
+    @PostMapping("/products/{id}/stock:adjust")
+    @PreAuthorize("hasRole('SHOP')")
+    public ResponseEntity<StockLevelResponse> adjustStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockAdjustRequest request,
             Authentication authentication) {
 
         Long userId = extractUserId(authentication);
-        ProductResponse response = productService.updateProduct(id, request, userId);
+        StockLevelResponse response = productService.adjustStock(id, request.getDelta(), userId);
         return ResponseEntity.ok(response);
     }
 
@@ -76,4 +202,35 @@ public class ProductController extends BaseController {
         productService.deleteProducts(productIds, userId);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Which of the catalog's two current ETags to check If-None-Match against:
+     * the gzip one if the client holds the gzip body and still accepts gzip,
+     * otherwise the JSON one. Either way a 304 names the copy the client has.
+     */
+    private static String heldCatalogEtag(String etag, WebRequest webRequest) {
+        String gzipEtag = CatalogResponseCache.gzipEtag(etag);
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains(gzipEtag)
+                && CatalogResponseCache.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return gzipEtag;
+        }
+        return etag;
+    }
+
+    /**
+     * Writes a cached catalog body as is, gzip-compressed when the client accepts it.
+     */
+    private ResponseEntity<byte[]> encodedCatalog(CatalogResponseCache.EncodedResponse body, WebRequest webRequest) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        byte[] gzip = catalogResponseCache.gzipBodyFor(body, webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (gzip != null) {
+            return response.eTag(CatalogResponseCache.gzipEtag(body.getEtag()))
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(gzip);
+        }
+        return response.eTag(body.getEtag()).body(body.getJson());
+    }
 }
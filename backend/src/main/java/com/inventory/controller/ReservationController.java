@@ -0,0 +1,66 @@
+package com.inventory.controller;
+
+import com.inventory.dto.ReservationRequest;
+import com.inventory.dto.ReservationResponse;
+import com.inventory.security.JwtUtil;
+import com.inventory.service.ReservationService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1")
+public class ReservationController extends BaseController {
+
+    private final ReservationService reservationService;
+
+    public ReservationController(JwtUtil jwtUtil, ReservationService reservationService) {
+        super(jwtUtil);
+        this.reservationService = reservationService;
+    }
+
+    @PostMapping("/products/{productId}/reservations")
+    @PreAuthorize("hasRole('SHOP')")
+    public ResponseEntity<ReservationResponse> reserve(
+            @PathVariable Long productId,
+            @Valid @RequestBody ReservationRequest request,
+            Authentication authentication) {
+
+        Long userId = extractUserId(authentication);
+        ReservationResponse response = reservationService.reserve(productId, request, userId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/reservations/{id}")
+    @PreAuthorize("hasRole('SHOP')")
+    public ResponseEntity<ReservationResponse> getReservation(
+            @PathVariable String id,
+            Authentication authentication) {
+
+        Long userId = extractUserId(authentication);
+        return ResponseEntity.ok(reservationService.getReservation(id, userId));
+    }
+
+    @PostMapping("/reservations/{id}/confirm")
+    @PreAuthorize("hasRole('SHOP')")
+    public ResponseEntity<ReservationResponse> confirm(
+            @PathVariable String id,
+            Authentication authentication) {
+
+        Long userId = extractUserId(authentication);
+        return ResponseEntity.ok(reservationService.confirm(id, userId));
+    }
+
+    @DeleteMapping("/reservations/{id}")
+    @PreAuthorize("hasRole('SHOP')")
+    public ResponseEntity<ReservationResponse> release(
+            @PathVariable String id,
+            Authentication authentication) {
+
+        Long userId = extractUserId(authentication);
+        return ResponseEntity.ok(reservationService.release(id, userId));
+    }
+}
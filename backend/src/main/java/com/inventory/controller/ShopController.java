@@ -1,18 +1,26 @@
 package com.inventory.controller;
 
+import com.inventory.catalog.CatalogVersions;
+import com.inventory.dto.NearbyShopResponse;
+import com.inventory.dto.PageResponse;
 import com.inventory.dto.ShopRequest;
 import com.inventory.dto.ShopResponse;
+import com.inventory.dto.ShopSummaryResponse;
 import com.inventory.security.JwtUtil;
 import com.inventory.service.ShopService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,10 +30,15 @@ import java.util.List;
 public class ShopController extends BaseController {
 
     private final ShopService shopService;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final CatalogVersions catalogVersions;
 
-    public ShopController(JwtUtil jwtUtil, ShopService shopService) {
+    public ShopController(JwtUtil jwtUtil, ShopService shopService, JsonArrayStreamer jsonArrayStreamer,
+            CatalogVersions catalogVersions) {
         super(jwtUtil);
         this.shopService = shopService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
+        this.catalogVersions = catalogVersions;
     }
 
     @PostMapping
@@ -54,6 +67,19 @@ public class ShopController extends BaseController {
         return ResponseEntity.ok(shops);
     }
 
+    /**
+     * Endpoint to get the inventory summary of every shop of the caller.
+     * GET /api/v1/shops/mine/summary
+     * 
+     * @return ResponseEntity with one summary per shop, ordered by shop ID
+     */
+    @GetMapping("/mine/summary")
+    @PreAuthorize("hasRole('SHOP')")
+    public ResponseEntity<List<ShopSummaryResponse>> getMyShopSummaries(Authentication authentication) {
+        Long userId = extractUserId(authentication);
+        return ResponseEntity.ok(shopService.getInventorySummariesByOwner(userId));
+    }
+
     /**
      * Endpoint to get ALL shops in the system (ADMIN only).
      * GET /api/v1/shops
@@ -67,18 +93,114 @@ public class ShopController extends BaseController {
         return ResponseEntity.ok(shops);
     }
 
+    /**
+     * Endpoint to get one page of all shops (ADMIN only).
+     * GET /api/v1/shops/page?cursor=&size=
+     * 
+     * @param cursor Cursor from the previous page (omit for the first page)
+     * @param size   Page size (optional)
+     * @return ResponseEntity with the page and the cursor for the next one
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<ShopResponse>> getShopsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(shopService.getShopsPage(cursor, size));
+    }
+
+    /**
+     * Endpoint to stream ALL shops as a JSON array (ADMIN only).
+     * Rows are written as they are read, so heap use stays flat for any
+     * number of shops.
+     * GET /api/v1/shops/export
+     * 
+     * @return ResponseEntity with a streaming JSON body
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportShops() {
+        StreamingResponseBody body = jsonArrayStreamer.<ShopResponse>stream(shopService::streamAllShops);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Endpoint to find the shops nearest to a location, closest first.
+     * GET /api/v1/shops/nearby?lat=&lon=&radiusKm=&limit=
+     * 
+     * @param lat      Latitude of the search point
+     * @param lon      Longitude of the search point
+     * @param radiusKm Search radius in kilometres (default 5)
+     * @param limit    Maximum number of shops (default 20)
+     * @return ResponseEntity with shops and their distance in kilometres
+     */
+    @GetMapping("/nearby")
+    @PreAuthorize("hasAnyRole('SHOP', 'ADMIN')")
+    public ResponseEntity<List<NearbyShopResponse>> getNearbyShops(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(shopService.findNearbyShops(lat, lon, radiusKm, limit));
+    }
+
     /**
      * Endpoint to get a specific shop by its ID.
      * GET /api/v1/shops/{id}
      * 
-     * @param id The shop ID from the URL path
-     * @return ResponseEntity with shop data
+     * Answers 304 Not Modified without touching the database when the
+     * client's If-None-Match still matches.
+     * 
+     * @param id         The shop ID from the URL path
+     * @param webRequest Current request, used for the If-None-Match check
+     * @return ResponseEntity with shop data and its ETag
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('SHOP', 'ADMIN')")
-    public ResponseEntity<ShopResponse> getShop(@PathVariable Long id) {
+    public ResponseEntity<ShopResponse> getShop(@PathVariable Long id, WebRequest webRequest) {
+        String etag = catalogVersions.shopEtag(id);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         ShopResponse shop = shopService.getShopById(id);
-        return ResponseEntity.ok(shop);
+        return ResponseEntity.ok().eTag(etag).body(shop);
+    }
+
+    /**
+     * Endpoint to get a shop's inventory summary: SKU count, total stock
+     * value, low-stock counts and a per-category breakdown.
+     * GET /api/v1/shops/{id}/summary
+     * 
+     * @param id             The shop ID from the URL path
+     * @param authentication Spring Security authentication object
+     * @return ResponseEntity with the shop's inventory summary
+     */
+    @GetMapping("/{id}/summary")
+    @PreAuthorize("hasAnyRole('SHOP', 'ADMIN')")
+    public ResponseEntity<ShopSummaryResponse> getShopSummary(@PathVariable Long id, Authentication authentication) {
+        Long userId = extractUserId(authentication);
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        return ResponseEntity.ok(shopService.getInventorySummary(id, userId, isAdmin));
+    }
+
+    /**
+     * Endpoint to follow a shop's product changes as Server-Sent Events.
+     * GET /api/v1/shops/{id}/events
+     * 
+     * The stream starts with a resync event; see README for the event types.
+     * 
+     * @param id             The shop ID from the URL path
+     * @param authentication Spring Security authentication object
+     * @return the event stream, held open until the client disconnects or it times out
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('SHOP', 'ADMIN')")
+    public SseEmitter streamShopEvents(@PathVariable Long id, Authentication authentication) {
+        Long userId = extractUserId(authentication);
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        return shopService.subscribeToEvents(id, userId, isAdmin);
     }
 
     /**
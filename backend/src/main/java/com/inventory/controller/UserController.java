@@ -1,14 +1,17 @@
 package com.inventory.controller;
 
+import com.inventory.dto.PageResponse;
 import com.inventory.dto.UserRegistrationRequest;
 import com.inventory.dto.UserResponse;
 import com.inventory.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,6 +21,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     /**
      * Register a new user (ADMIN only)
@@ -41,6 +45,29 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Get one page of users (ADMIN only)
+     * GET /api/v1/users/page?cursor=&size=
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<UserResponse>> getUsersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(userService.getUsersPage(cursor, size));
+    }
+
+    /**
+     * Stream all users as a JSON array (ADMIN only)
+     * GET /api/v1/users/export
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = jsonArrayStreamer.<UserResponse>stream(userService::streamAllUsers);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     /**
      * Get user by ID (ADMIN only)
      * GET /api/v1/users/{id}
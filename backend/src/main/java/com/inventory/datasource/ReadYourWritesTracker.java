@@ -0,0 +1,58 @@
+package com.inventory.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users committed a write in the last few seconds, so their
+ * reads can stay on the primary until the replica has had time to catch up.
+ * Without this, a user who saves a product and reloads the list could see
+ * the list from before the save.
+ *
+ * Entries expire on their own after the window; the map is bounded so a
+ * burst of writers cannot grow it without limit.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    /**
+     * @param window     How long a user's reads stay on the primary after a write
+     * @param maxWriters Most users tracked at once; beyond that the least recent are dropped
+     */
+    public ReadYourWritesTracker(Duration window, long maxWriters) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxWriters)
+                .build();
+    }
+
+    /**
+     * Marks the user as a recent writer once the current transaction commits.
+     * Each transaction registers at most once.
+     */
+    public void recordOnCommit(String user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadYourWritesTracker.this);
+                if (status == STATUS_COMMITTED) {
+                    recentWriters.put(user, Boolean.TRUE);
+                }
+            }
+        });
+    }
+
+    public boolean wroteRecently(String user) {
+        return recentWriters.getIfPresent(user) != null;
+    }
+}
@@ -0,0 +1,107 @@
+package com.inventory.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica's replication lag in the background and reports whether
+ * reads may be sent to it.
+ *
+ * The replica is usable while its lag is at most the configured tolerance.
+ * If the lag cannot be read (replica down, network error) it is treated as
+ * unusable until a later check succeeds, so reads fall back to the primary
+ * instead of failing.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Lag is zero when the replica has replayed everything it received; an
+    // idle primary would otherwise make the last replay timestamp look old.
+    // A server that is not in recovery (a stand-in for a replica) has no lag.
+    private static final String LAG_SQL = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final long checkIntervalMillis;
+
+    private volatile double lagMillis = Double.NaN;
+    private volatile boolean usable;
+    private ScheduledExecutorService checker;
+
+    /**
+     * @param replica             The replica pool
+     * @param maxLagMillis        Largest lag at which reads still go to the replica
+     * @param checkIntervalMillis How often the lag is read
+     */
+    public ReplicaLagMonitor(DataSource replica, long maxLagMillis, long checkIntervalMillis,
+            MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(checkIntervalMillis)));
+        this.maxLagMillis = maxLagMillis;
+        this.checkIntervalMillis = checkIntervalMillis;
+
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagMillis)
+                .description("Last measured replication lag; NaN when the replica could not be reached")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        // First check inline, so the replica is only used once it has been seen
+        check();
+        checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::check, checkIntervalMillis, checkIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replica.queryForObject(LAG_SQL, Double.class);
+            lagMillis = lag != null ? lag : 0;
+            usable = lagMillis <= maxLagMillis;
+        } catch (DataAccessException e) {
+            lagMillis = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Replica unreachable, reading from the primary: {}", e.getMessage());
+            }
+            return;
+        }
+        if (wasUsable != usable) {
+            if (usable) {
+                log.info("Replica lag {} ms, sending read-only transactions to the replica", (long) lagMillis);
+            } else {
+                log.warn("Replica lag {} ms exceeds {} ms, reading from the primary", (long) lagMillis,
+                        maxLagMillis);
+            }
+        }
+    }
+}
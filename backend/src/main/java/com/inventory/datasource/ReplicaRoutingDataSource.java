@@ -0,0 +1,120 @@
+package com.inventory.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the
+ * primary.
+ *
+ * A read-only transaction still goes to the primary when the replica is
+ * lagging beyond the configured tolerance, when the current user committed a
+ * write within the read-your-writes window, or when the caller asked for the
+ * primary with {@link #onPrimary}. Work outside a transaction always uses the
+ * primary.
+ *
+ * The routing decision reads the transaction's read-only flag, so this data
+ * source must be wrapped in a LazyConnectionDataSourceProxy: the physical
+ * connection is then only fetched once the transaction has been set up.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker writeTracker;
+
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter laggingReads;
+    private final Counter stickyReads;
+    private final Counter requiredReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+            ReadYourWritesTracker writeTracker, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.writeTracker = writeTracker;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        writes = routingCounter(meterRegistry, "primary", "write");
+        replicaReads = routingCounter(meterRegistry, "replica", "read");
+        laggingReads = routingCounter(meterRegistry, "primary", "replica-lag");
+        stickyReads = routingCounter(meterRegistry, "primary", "read-your-writes");
+        requiredReads = routingCounter(meterRegistry, "primary", "required");
+    }
+
+    /**
+     * Runs the action with every transaction it opens reading from the
+     * primary. Used where a result is kept beyond the request, such as
+     * responses cached under a catalog version, which must not be built from
+     * a replica that has not caught up with that version yet.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            if (user != null) {
+                writeTracker.recordOnCommit(user);
+            }
+            return Target.PRIMARY;
+        }
+        if (PRIMARY_REQUIRED.get() != null) {
+            requiredReads.increment();
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            laggingReads.increment();
+            return Target.PRIMARY;
+        }
+        if (user != null && writeTracker.wroteRecently(user)) {
+            stickyReads.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out, by the pool they came from and why")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Inventory totals of one category within a shop; category is null for
+ * products without one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySummaryResponse {
+    private String category;
+    private int skuCount;
+    private long totalStock;
+    private BigDecimal stockValue;
+    private int lowStockCount;
+    private int outOfStockCount;
+}
@@ -0,0 +1,13 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyShopResponse {
+    private ShopResponse shop;
+    private double distanceKm;
+}
@@ -0,0 +1,40 @@
+package com.inventory.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class ProductBatchUpdateRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    private List<Item> items;
+
+    /**
+     * Changes to one product. Omitted fields are left as they are; an empty
+     * category clears it.
+     */
+    @Data
+    public static class Item {
+
+        @NotNull(message = "Product id is required")
+        private Long id;
+
+        @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+        @Digits(integer = 8, fraction = 2, message = "Price must have at most 8 digits and 2 decimals")
+        private BigDecimal price;
+
+        @Min(value = 0, message = "Stock must be 0 or greater")
+        private Integer stock;
+
+        @Size(max = 255, message = "Category must be at most 255 characters")
+        private String category;
+    }
+}
@@ -0,0 +1,42 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchUpdateResponse {
+    private int updated;
+    private int failed;
+
+    /**
+     * One result per request item, in request order.
+     */
+    private List<ItemResult> results;
+
+    public enum Status {
+        UPDATED, NOT_FOUND, FORBIDDEN, INVALID
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long id;
+        private Status status;
+
+        /**
+         * Why the item was not applied; null when it was.
+         */
+        private String message;
+
+        /**
+         * The product after the update; null when it was not applied.
+         */
+        private ProductResponse product;
+    }
+}
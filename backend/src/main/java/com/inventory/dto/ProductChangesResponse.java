@@ -0,0 +1,35 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesResponse {
+    private Long shopId;
+
+    /**
+     * Cursor to send as {@code since} on the next call.
+     */
+    private Long nextSince;
+
+    /**
+     * True when {@code changed} is the shop's whole catalog and the client
+     * should replace its copy instead of merging; {@code deleted} is then empty.
+     */
+    private boolean snapshot;
+
+    /**
+     * Products created or modified since the cursor, in their current state.
+     */
+    private List<ProductResponse> changed;
+
+    /**
+     * IDs of products deleted since the cursor.
+     */
+    private List<Long> deleted;
+}
@@ -0,0 +1,31 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+    private long imported;
+    private long rejected;
+
+    /**
+     * Per-row problems, capped so a bad file cannot produce an unbounded response.
+     */
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        /**
+         * 1-based row number in the upload, not counting the CSV header.
+         */
+        private long row;
+        private String message;
+    }
+}
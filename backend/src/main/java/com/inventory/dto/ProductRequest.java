@@ -1,9 +1,11 @@
 package com.inventory.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -12,18 +14,21 @@ import java.math.BigDecimal;
 public class ProductRequest {
     
     @NotBlank(message = "Product name is required")
+    @Size(max = 255, message = "Product name must be at most 255 characters")
     private String name;
     
     private String description;
     
     @NotNull(message = "Price is required")
     @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    @Digits(integer = 8, fraction = 2, message = "Price must have at most 8 digits and 2 decimals")
     private BigDecimal price;
     
     @NotNull(message = "Stock is required")
     @Min(value = 0, message = "Stock must be 0 or greater")
     private Integer stock;
     
+    @Size(max = 255, message = "Category must be at most 255 characters")
     private String category;
 }
 
@@ -0,0 +1,19 @@
+package com.inventory.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ReservationRequest {
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    /**
+     * Optional hold lifetime; the configured default is used when omitted.
+     */
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private Long ttlSeconds;
+}
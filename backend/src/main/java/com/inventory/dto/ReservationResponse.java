@@ -0,0 +1,18 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+    private String reservationId;
+    private Long productId;
+    private Integer quantity;
+    private String status; // HELD, CONFIRMED, RELEASED or EXPIRED
+    private Instant expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Inventory totals of one shop, as shown on the shop card.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopSummaryResponse {
+    private Long shopId;
+    private int skuCount;
+    private long totalStock;
+    // Sum of price x stock over all products
+    private BigDecimal stockValue;
+    private int lowStockThreshold;
+    // Products with 0 < stock <= lowStockThreshold
+    private int lowStockCount;
+    private int outOfStockCount;
+    private List<CategorySummaryResponse> categories;
+}
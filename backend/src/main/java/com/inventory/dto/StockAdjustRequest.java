@@ -0,0 +1,14 @@
+package com.inventory.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class StockAdjustRequest {
+
+    /**
+     * Signed change to apply: negative for sales, positive for restocks.
+     */
+    @NotNull(message = "Delta is required")
+    private Integer delta;
+}
@@ -0,0 +1,37 @@
+package com.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a confirmed stock reservation whose decrement has been written to the
+ * product table. Written in the same transaction as the decrement so that
+ * replaying the reservation log after a crash never applies it twice.
+ */
+@Entity
+@Table(name = "stock_reservation_applied")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedReservation {
+
+    @Id
+    @Column(name = "reservation_id", length = 36)
+    private String reservationId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
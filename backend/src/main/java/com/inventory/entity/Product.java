@@ -1,5 +1,6 @@
 package com.inventory.entity;
 
+import com.inventory.repository.IdBlocks;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
+// Schema and indexes are defined by the Flyway migrations in db/migration
 @Table(name = "product")
 @Data
 @NoArgsConstructor
@@ -15,7 +17,8 @@ import java.math.BigDecimal;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id_seq")
+    @SequenceGenerator(name = "product_id_seq", sequenceName = "product_id_seq", allocationSize = IdBlocks.SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.inventory.entity;
 
+import com.inventory.repository.IdBlocks;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+// Schema and indexes are defined by the Flyway migrations in db/migration
 @Table(name = "shop")
 @Data
 @NoArgsConstructor
@@ -16,7 +18,8 @@ import java.util.List;
 public class Shop {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shop_id_seq")
+    @SequenceGenerator(name = "shop_id_seq", sequenceName = "shop_id_seq", allocationSize = IdBlocks.SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -1,5 +1,6 @@
 package com.inventory.entity;
 
+import com.inventory.repository.IdBlocks;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,7 +14,8 @@ import lombok.NoArgsConstructor;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = IdBlocks.SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
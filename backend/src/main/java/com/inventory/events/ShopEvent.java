@@ -0,0 +1,19 @@
+package com.inventory.events;
+
+/**
+ * One change pushed to the subscribers of a shop.
+ *
+ * @param type SSE event name: product-created, product-updated, product-deleted,
+ *             stock-changed or resync
+ * @param data JSON payload
+ * @param etag Catalog ETag after the change; sent as the SSE event ID so a
+ *             client can revalidate its listing with If-None-Match
+ */
+record ShopEvent(String type, Object data, String etag) {
+
+    static final String PRODUCT_CREATED = "product-created";
+    static final String PRODUCT_UPDATED = "product-updated";
+    static final String PRODUCT_DELETED = "product-deleted";
+    static final String STOCK_CHANGED = "stock-changed";
+    static final String RESYNC = "resync";
+}
@@ -0,0 +1,420 @@
+package com.inventory.events;
+
+import com.inventory.catalog.CatalogVersions;
+import com.inventory.dto.ProductResponse;
+import com.inventory.dto.StockLevelResponse;
+import com.inventory.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes product changes to Server-Sent Events subscribers, per shop.
+ *
+ * Connections are held as async servlet responses, so an idle subscriber
+ * costs no thread. Publishing only appends to each subscriber's bounded
+ * buffer and never blocks the writer; a small dispatcher pool drains the
+ * buffers, one subscriber at a time per task, so events to one client stay in
+ * order. A subscriber whose buffer overflows loses its buffered events and is
+ * sent a single resync event instead, telling it to reload the listing.
+ * Heartbeat comments keep idle connections open through proxies and detect
+ * clients that have gone away.
+ *
+ * Writing to a response blocks while the client's socket buffer is full, so
+ * a client that stops reading without closing the connection holds a
+ * dispatcher thread until the container's write timeout. A watchdog ends the
+ * stream of any subscriber whose write takes longer than the write timeout
+ * and adds a thread to the pool in place of the blocked one, up to a limit,
+ * so other shops' events keep flowing; the extra thread is retired once the
+ * blocked write returns.
+ */
+@Component
+public class ShopEventHub {
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final CatalogVersions catalogVersions;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long writeTimeoutNanos;
+    private final int dispatchThreads;
+    private final int maxStalledWrites;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+
+    // Writes the watchdog gave up on that still hold a dispatcher thread
+    private final ReentrantLock poolSizeLock = new ReentrantLock();
+    private volatile int stalledWrites;
+
+    private final Counter delivered;
+    private final Counter overflows;
+    private final Counter writeTimeouts;
+
+    public ShopEventHub(CatalogVersions catalogVersions,
+            @Value("${app.events.buffer-size:256}") int bufferSize,
+            @Value("${app.events.max-subscribers:10000}") int maxSubscribers,
+            @Value("${app.events.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.events.heartbeat-ms:15000}") long heartbeatMs,
+            @Value("${app.events.dispatch-threads:0}") int dispatchThreads,
+            @Value("${app.events.write-timeout-ms:5000}") long writeTimeoutMs,
+            @Value("${app.events.max-stalled-writes:64}") int maxStalledWrites,
+            MeterRegistry meterRegistry) {
+        this.catalogVersions = catalogVersions;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.maxStalledWrites = maxStalledWrites;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatchThreads = dispatchThreads > 0 ? dispatchThreads
+                : Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.pool = new ThreadPoolExecutor(this.dispatchThreads, this.dispatchThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "shop-events-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.dispatcher = ExecutorServiceMetrics.monitor(meterRegistry, pool, "shop.events.dispatcher", List.of());
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shop-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long watchdogMs = Math.max(100, writeTimeoutMs / 2);
+        heartbeat.scheduleWithFixedDelay(this::checkStalledWrites, watchdogMs, watchdogMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("shop.events.subscribers", subscriberCount, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("shop.events.stalled.writes", this, hub -> hub.stalledWrites)
+                .description("Dispatcher threads blocked in a write the watchdog gave up on")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("shop.events.delivered")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("shop.events.overflows")
+                .description("Subscribers that fell behind, lost their buffer and were told to resync")
+                .register(meterRegistry);
+        this.writeTimeouts = Counter.builder("shop.events.write.timeouts")
+                .description("Subscribers disconnected because a write to them took longer than the write timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens an event stream for one shop. The first event is a resync carrying
+     * the current catalog ETag, so the client knows which listing the
+     * following events apply to.
+     *
+     * @throws ServiceUnavailableException if the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Long shopId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many event subscribers, please retry later", 30);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(shopId, emitter);
+        subscribers.compute(shopId, (id, set) -> {
+            Set<Subscriber> shopSubscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            shopSubscribers.add(subscriber);
+            return shopSubscribers;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.offer(resyncEvent(shopId));
+        return emitter;
+    }
+
+    public void productCreated(ProductResponse product) {
+        publish(product.getShopId(), ShopEvent.PRODUCT_CREATED, product);
+    }
+
+    public void productUpdated(ProductResponse product) {
+        publish(product.getShopId(), ShopEvent.PRODUCT_UPDATED, product);
+    }
+
+    public void productDeleted(Long shopId, Long productId) {
+        publish(shopId, ShopEvent.PRODUCT_DELETED, Map.of("productId", productId, "shopId", shopId));
+    }
+
+    public void stockChanged(StockLevelResponse level) {
+        publish(level.getShopId(), ShopEvent.STOCK_CHANGED, level);
+    }
+
+    /**
+     * Tells every subscriber of the shop to reload its listing, for changes
+     * too large to send one product at a time, such as imports.
+     */
+    public void catalogReplaced(Long shopId) {
+        Set<Subscriber> shopSubscribers = subscribers.get(shopId);
+        if (shopSubscribers != null) {
+            ShopEvent event = resyncEvent(shopId);
+            shopSubscribers.forEach(s -> s.offer(event));
+        }
+    }
+
+    /**
+     * Ends every stream of a deleted shop. Reconnecting clients then get 404.
+     */
+    public void shopRemoved(Long shopId) {
+        Set<Subscriber> shopSubscribers = subscribers.get(shopId);
+        if (shopSubscribers != null) {
+            // Not completed here: that would wait behind a write stuck on a slow client
+            shopSubscribers.forEach(Subscriber::end);
+        }
+    }
+
+    /**
+     * Call after the change has committed and the catalog version was bumped.
+     */
+    private void publish(Long shopId, String type, Object data) {
+        Set<Subscriber> shopSubscribers = subscribers.get(shopId);
+        if (shopSubscribers == null) {
+            return;
+        }
+        ShopEvent event = new ShopEvent(type, data, catalogVersions.catalogEtag(shopId));
+        shopSubscribers.forEach(s -> s.offer(event));
+    }
+
+    private ShopEvent resyncEvent(Long shopId) {
+        String etag = catalogVersions.catalogEtag(shopId);
+        return new ShopEvent(ShopEvent.RESYNC, Map.of("shopId", shopId, "etag", etag), etag);
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::heartbeat));
+    }
+
+    /**
+     * Disconnects subscribers stuck in a write and replaces their blocked
+     * dispatcher threads. The emitter is not touched here: completing it would
+     * wait for the blocked write. The dispatcher thread completes it instead
+     * once the write returns.
+     */
+    private void checkStalledWrites() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(set -> set.forEach(s -> {
+            long started = s.writeStartedNanos;
+            if (started != 0 && now - started > writeTimeoutNanos && s.stalled.compareAndSet(false, true)) {
+                writeTimeouts.increment();
+                s.end();
+                if (addDispatchThread()) {
+                    s.replacedThread.set(true);
+                    // The write may have returned in the meantime without seeing the flag
+                    if (s.writeStartedNanos == 0 && s.replacedThread.compareAndSet(true, false)) {
+                        retireDispatchThread();
+                    }
+                }
+            }
+        }));
+    }
+
+    private boolean addDispatchThread() {
+        poolSizeLock.lock();
+        try {
+            if (stalledWrites >= maxStalledWrites) {
+                return false;
+            }
+            stalledWrites++;
+            resizePool();
+            return true;
+        } finally {
+            poolSizeLock.unlock();
+        }
+    }
+
+    private void retireDispatchThread() {
+        poolSizeLock.lock();
+        try {
+            stalledWrites--;
+            resizePool();
+        } finally {
+            poolSizeLock.unlock();
+        }
+    }
+
+    private void resizePool() {
+        int size = dispatchThreads + stalledWrites;
+        // The maximum may never drop below the core size, so the order depends on the direction
+        if (size > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(size);
+            pool.setCorePoolSize(size);
+        } else {
+            pool.setCorePoolSize(size);
+            pool.setMaximumPoolSize(size);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        heartbeat.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(Subscriber::end));
+        dispatcher.shutdown();
+        // Streams stuck on a slow client are left to the container, which closes its connections next
+        if (!dispatcher.awaitTermination(TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos), TimeUnit.MILLISECONDS)) {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+        final Long shopId;
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<ShopEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean stalled = new AtomicBoolean();
+        final AtomicBoolean completed = new AtomicBoolean();
+        // Set when the stream is to be ended by the dispatcher
+        volatile boolean ending;
+        volatile boolean overflowed;
+        volatile boolean heartbeatDue;
+        // System.nanoTime() when the current write began, 0 when not writing
+        volatile long writeStartedNanos;
+        final AtomicBoolean replacedThread = new AtomicBoolean();
+
+        Subscriber(Long shopId, SseEmitter emitter) {
+            this.shopId = shopId;
+            this.emitter = emitter;
+        }
+
+        void offer(ShopEvent event) {
+            if (!buffer.offer(event)) {
+                // Drop everything buffered: the resync replaces it
+                overflowed = true;
+                buffer.clear();
+                overflows.increment();
+            }
+            schedule();
+        }
+
+        void heartbeat() {
+            if (buffer.isEmpty()) {
+                heartbeatDue = true;
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this);
+            }
+        }
+
+        /**
+         * Unsubscribes at once and has the dispatcher complete the stream, after
+         * any write in progress returns.
+         */
+        void end() {
+            ending = true;
+            close();
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (ending) {
+                    complete();
+                    return;
+                }
+                if (overflowed) {
+                    overflowed = false;
+                    buffer.clear();
+                    send(resyncEvent(shopId));
+                }
+                ShopEvent event;
+                while (!overflowed && !ending && (event = buffer.poll()) != null) {
+                    send(event);
+                }
+                if (heartbeatDue && !ending) {
+                    heartbeatDue = false;
+                    write(SseEmitter.event().comment("heartbeat"));
+                }
+                if (ending) {
+                    // E.g. the client caught up after the watchdog gave up on it; it reconnects and resyncs
+                    complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the response already completed; the container reports the error
+                close();
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // Events offered, or an end requested, while the flag was still set would otherwise wait
+            if (ending) {
+                if (!completed.get() && scheduled.compareAndSet(false, true)) {
+                    dispatcher.execute(this);
+                }
+            } else if (overflowed || !buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+
+        private void send(ShopEvent event) throws IOException {
+            write(SseEmitter.event()
+                    .name(event.type())
+                    .id(event.etag())
+                    .data(event.data(), MediaType.APPLICATION_JSON));
+            delivered.increment();
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) throws IOException {
+            writeStartedNanos = Math.max(1, System.nanoTime());
+            try {
+                emitter.send(event);
+            } finally {
+                writeStartedNanos = 0;
+                if (replacedThread.compareAndSet(true, false)) {
+                    retireDispatchThread();
+                }
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(shopId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.inventory.geo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A shop found by the spatial index and its distance from the query point.
+ */
+@Getter
+@AllArgsConstructor
+public class ShopDistance {
+    private final Long shopId;
+    private final double distanceKm;
+}
@@ -0,0 +1,273 @@
+package com.inventory.geo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid index over shop coordinates for nearest-shop queries.
+ *
+ * The globe is cut into square cells of a fixed number of degrees. Each cell
+ * holds an immutable array of the shops inside it and is replaced on write,
+ * so queries never lock. A k-nearest query visits rings of cells around the
+ * query point, limited in each row of cells to the columns the search circle
+ * reaches there, and stops as soon as no unvisited cell can hold a closer shop.
+ */
+@Component
+public class ShopGeoIndex {
+
+    static final int FULL_ROW = Integer.MAX_VALUE;
+    static final int UNREACHABLE = -1;
+
+    // Cell sizes as used: the configured size, shrunk just enough that whole
+    // cells tile the latitude and longitude ranges exactly
+    private final double latCellDeg;
+    private final double lonCellDeg;
+    private final int latCells;
+    private final int lonCells;
+
+    private final ConcurrentHashMap<Long, ShopLocation[]> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ShopLocation> byShopId = new ConcurrentHashMap<>();
+
+    public ShopGeoIndex(@Value("${app.geo.cell-size-deg:0.05}") double cellSizeDeg) {
+        if (cellSizeDeg <= 0 || cellSizeDeg > 90) {
+            throw new IllegalArgumentException("Cell size must be in (0, 90] degrees");
+        }
+        this.latCells = (int) Math.ceil(180.0 / cellSizeDeg);
+        this.lonCells = (int) Math.ceil(360.0 / cellSizeDeg);
+        this.latCellDeg = 180.0 / latCells;
+        this.lonCellDeg = 360.0 / lonCells;
+    }
+
+    /**
+     * Adds a shop, or moves it if it is already indexed.
+     */
+    public void put(ShopLocation location) {
+        ShopLocation previous = byShopId.put(location.getShopId(), location);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+        long key = cellKey(latIndex(location.getLatitude()), lonIndex(location.getLongitude()));
+        cells.compute(key, (k, entries) -> {
+            if (entries == null) {
+                return new ShopLocation[] { location };
+            }
+            ShopLocation[] grown = Arrays.copyOf(entries, entries.length + 1);
+            grown[entries.length] = location;
+            return grown;
+        });
+    }
+
+    public void remove(Long shopId) {
+        ShopLocation previous = byShopId.remove(shopId);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+    }
+
+    public int size() {
+        return byShopId.size();
+    }
+
+    public void clear() {
+        cells.clear();
+        byShopId.clear();
+    }
+
+    /**
+     * Finds up to {@code limit} shops within {@code radiusKm} of the point,
+     * nearest first.
+     */
+    public List<ShopDistance> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        if (limit <= 0 || radiusKm <= 0) {
+            return List.of();
+        }
+
+        // Max-heap on distance holding the best candidates found so far
+        PriorityQueue<ShopDistance> best = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble(ShopDistance::getDistanceKm).reversed());
+
+        int centerLat = latIndex(latitude);
+        int centerLon = lonIndex(longitude);
+        double cellKmLat = latCellDeg * GeoMath.KM_PER_DEGREE;
+
+        // Rows are bounded by latitude alone. Within each row only the columns the
+        // search circle can reach are visited, which near a pole may be the whole row
+        // but never more than it, so the cost stays bounded by the circle's area.
+        double radiusDeg = radiusKm / GeoMath.KM_PER_DEGREE;
+        int latReach = (int) Math.min(latCells, Math.ceil(radiusDeg / latCellDeg));
+        int firstRow = Math.max(0, centerLat - latReach);
+        int lastRow = Math.min(latCells - 1, centerLat + latReach);
+        int[] lonReach = new int[lastRow - firstRow + 1];
+        int maxRing = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int reach = lonReachCells(latitude, radiusKm, row);
+            lonReach[row - firstRow] = reach;
+            if (reach != UNREACHABLE) {
+                maxRing = Math.max(maxRing, Math.max(Math.abs(row - centerLat), reach == FULL_ROW ? 0 : reach));
+            }
+        }
+
+        // Rings of cells around the query point, nearest first; each cell is visited
+        // once, in ring max(|dLat|, |dLon|)
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int row = Math.max(firstRow, centerLat - ring); row <= Math.min(lastRow, centerLat + ring); row++) {
+                int reach = lonReach[row - firstRow];
+                if (reach == UNREACHABLE) {
+                    continue;
+                }
+                boolean edgeRow = Math.abs(row - centerLat) == ring;
+                if (reach == FULL_ROW) {
+                    if (edgeRow) {
+                        for (int lonIdx = 0; lonIdx < lonCells; lonIdx++) {
+                            scanCell(cellKey(row, lonIdx), latitude, longitude, radiusKm, limit, best);
+                        }
+                    }
+                } else if (edgeRow) {
+                    int span = Math.min(ring, reach);
+                    for (int dLon = -span; dLon <= span; dLon++) {
+                        scanCell(cellKey(row, Math.floorMod(centerLon + dLon, lonCells)), latitude, longitude,
+                                radiusKm, limit, best);
+                    }
+                } else if (ring <= reach) {
+                    scanCell(cellKey(row, Math.floorMod(centerLon - ring, lonCells)), latitude, longitude,
+                            radiusKm, limit, best);
+                    scanCell(cellKey(row, Math.floorMod(centerLon + ring, lonCells)), latitude, longitude,
+                            radiusKm, limit, best);
+                }
+            }
+
+            // A cell in a later ring is at least `ring` whole cells away in latitude
+            // or in longitude, so no shop in it is nearer than this
+            if (best.size() == limit && best.peek().getDistanceKm() <= minDistanceKm(latitude, ring, cellKmLat)) {
+                break;
+            }
+        }
+
+        List<ShopDistance> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(ShopDistance::getDistanceKm));
+        return result;
+    }
+
+    /**
+     * How many columns east and west of the query point's column the search
+     * circle reaches within one row.
+     *
+     * @return the column count, {@link #FULL_ROW} if the circle spans every
+     *         longitude of the row, or {@link #UNREACHABLE} if it misses the row
+     */
+    int lonReachCells(double latitude, double radiusKm, int row) {
+        double delta = radiusKm / GeoMath.EARTH_RADIUS_KM;
+        if (delta >= Math.PI) {
+            return FULL_ROW;
+        }
+        double south = row == 0 ? -90.0 : row * latCellDeg - 90.0;
+        double north = row == latCells - 1 ? 90.0 : south + latCellDeg;
+        double phi0 = Math.toRadians(latitude);
+        double distanceToPoleDeg = 90.0 - Math.abs(latitude);
+        double deltaDeg = Math.toDegrees(delta);
+        // A pole on the row's edge inside the circle: the row meets every meridian there
+        if (north >= 90.0 && 90.0 - latitude <= deltaDeg || south <= -90.0 && 90.0 + latitude <= deltaDeg) {
+            return FULL_ROW;
+        }
+        if (Math.cos(phi0) < 1e-12) {
+            // Query at a pole: every reachable row is a full circle around it
+            return distanceToPoleDeg + deltaDeg >= (latitude > 0 ? 90.0 - north : south + 90.0)
+                    ? FULL_ROW : UNREACHABLE;
+        }
+
+        // A point at latitude phi is within delta if cos(dLon) >= g(phi); the widest
+        // longitude reach is at the minimum of g over the row, which lies at an end
+        // of the row or where sin(phi) = sin(phi0) / cos(delta)
+        double minG = Math.min(lonBound(phi0, delta, Math.toRadians(south)),
+                lonBound(phi0, delta, Math.toRadians(north)));
+        double sinTangent = Math.sin(phi0) / Math.cos(delta);
+        if (Math.cos(delta) > 0 && Math.abs(sinTangent) <= 1) {
+            double tangent = Math.toDegrees(Math.asin(sinTangent));
+            if (tangent > south && tangent < north) {
+                minG = Math.min(minG, lonBound(phi0, delta, Math.toRadians(tangent)));
+            }
+        }
+        if (minG > 1) {
+            return UNREACHABLE;
+        }
+        if (minG <= -1) {
+            return FULL_ROW;
+        }
+        double reachDeg = Math.toDegrees(Math.acos(minG));
+        int cells = (int) Math.ceil(reachDeg / lonCellDeg + 1e-9);
+        return 2 * cells + 1 >= lonCells ? FULL_ROW : cells;
+    }
+
+    private static double lonBound(double phi0, double delta, double phi) {
+        double denominator = Math.cos(phi0) * Math.cos(phi);
+        if (denominator < 1e-12) {
+            // A pole that is outside the circle (inside it was handled by the caller)
+            return Double.POSITIVE_INFINITY;
+        }
+        return (Math.cos(delta) - Math.sin(phi0) * Math.sin(phi)) / denominator;
+    }
+
+    /**
+     * Lower bound on the distance from the query point to any cell more than
+     * {@code cells} cells away from its own, in latitude or in longitude.
+     */
+    private double minDistanceKm(double latitude, int cells, double cellKmLat) {
+        double byLatitude = cells * cellKmLat;
+        // Distance from the point to the meridian that many columns away, which
+        // shrinks towards the poles where meridians converge
+        double lonRad = Math.toRadians(Math.min(90.0, cells * lonCellDeg));
+        double byLongitude = GeoMath.EARTH_RADIUS_KM
+                * Math.asin(Math.min(1.0, Math.cos(Math.toRadians(latitude)) * Math.sin(lonRad)));
+        return Math.min(byLatitude, byLongitude);
+    }
+
+    private void scanCell(long key, double latitude, double longitude, double radiusKm, int limit,
+            PriorityQueue<ShopDistance> best) {
+        ShopLocation[] entries = cells.get(key);
+        if (entries == null) {
+            return;
+        }
+        for (ShopLocation entry : entries) {
+            double distance = GeoMath.haversineKm(latitude, longitude, entry.getLatitude(), entry.getLongitude());
+            if (distance > radiusKm) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(new ShopDistance(entry.getShopId(), distance));
+            } else if (distance < best.peek().getDistanceKm()) {
+                best.poll();
+                best.add(new ShopDistance(entry.getShopId(), distance));
+            }
+        }
+    }
+
+    private void removeFromCell(ShopLocation location) {
+        long key = cellKey(latIndex(location.getLatitude()), lonIndex(location.getLongitude()));
+        cells.computeIfPresent(key, (k, entries) -> {
+            ShopLocation[] kept = Arrays.stream(entries)
+                    .filter(e -> e != location)
+                    .toArray(ShopLocation[]::new);
+            return kept.length == 0 ? null : kept;
+        });
+    }
+
+    private int latIndex(double latitude) {
+        int idx = (int) Math.floor((latitude + 90.0) / latCellDeg);
+        return Math.max(0, Math.min(latCells - 1, idx));
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / lonCellDeg), lonCells);
+    }
+
+    private long cellKey(int latIdx, int lonIdx) {
+        return (long) latIdx * lonCells + lonIdx;
+    }
+}
@@ -0,0 +1,34 @@
+package com.inventory.geo;
+
+import com.inventory.repository.ShopRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Fills the spatial index from the database once the application has started.
+ * After that ShopService keeps it current on every register and delete.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShopGeoIndexLoader {
+
+    private final ShopRepository shopRepository;
+    private final ShopGeoIndex shopGeoIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.currentTimeMillis();
+        try (Stream<ShopLocation> locations = shopRepository.streamLocations()) {
+            locations.forEach(shopGeoIndex::put);
+        }
+        log.info("Indexed {} shop locations in {} ms", shopGeoIndex.size(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,15 @@
+package com.inventory.geo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position of a shop as held by the spatial index.
+ */
+@Getter
+@AllArgsConstructor
+public class ShopLocation {
+    private final Long shopId;
+    private final double latitude;
+    private final double longitude;
+}
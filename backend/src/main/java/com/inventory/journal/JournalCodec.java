@@ -0,0 +1,246 @@
+package com.inventory.journal;
+
+import com.inventory.journal.Mutation.Aborted;
+import com.inventory.journal.Mutation.ProductDeleted;
+import com.inventory.journal.Mutation.ProductSaved;
+import com.inventory.journal.Mutation.ShopCreated;
+import com.inventory.journal.Mutation.ShopDeleted;
+import com.inventory.journal.Mutation.StockAdjusted;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary record format of the journal. All numbers are big-endian.
+ *
+ * <pre>
+ * int   length     bytes after this 8-byte prefix (0 marks the end of a segment)
+ * int   crc32c     of those bytes
+ * long  sequence
+ * long  timestamp  epoch milliseconds
+ * byte  type
+ * ...   payload    fixed-width fields, then strings as varint (byte length + 1,
+ *                  0 for null) followed by UTF-8 bytes
+ * </pre>
+ *
+ * Prices are stored as unscaled cents, matching the NUMERIC(10, 2) column.
+ */
+final class JournalCodec {
+
+    static final int PREFIX_BYTES = 8;
+    static final int FIXED_BYTES = 17;
+
+    private static final byte PRODUCT_CREATED = 1;
+    private static final byte PRODUCT_UPDATED = 2;
+    private static final byte STOCK_ADJUSTED = 3;
+    private static final byte PRODUCT_DELETED = 4;
+    private static final byte SHOP_CREATED = 5;
+    private static final byte SHOP_DELETED = 6;
+    private static final byte ABORTED = 7;
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Encodes a mutation into a complete record whose sequence, timestamp and
+     * checksum are filled in later by {@link #seal}, under the append lock.
+     */
+    static byte[] encode(Mutation mutation) {
+        Writer out = new Writer();
+        out.skip(PREFIX_BYTES + 16);
+        if (mutation instanceof ProductSaved p) {
+            out.writeByte(p.created() ? PRODUCT_CREATED : PRODUCT_UPDATED);
+            out.writeLong(p.shopId());
+            out.writeLong(p.productId());
+            out.writeLong(p.price().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+            out.writeInt(p.stock());
+            out.writeString(p.name());
+            out.writeString(p.description());
+            out.writeString(p.category());
+        } else if (mutation instanceof StockAdjusted s) {
+            out.writeByte(STOCK_ADJUSTED);
+            out.writeLong(s.shopId());
+            out.writeLong(s.productId());
+            out.writeInt(s.delta());
+            out.writeInt(s.stock());
+        } else if (mutation instanceof ProductDeleted d) {
+            out.writeByte(PRODUCT_DELETED);
+            out.writeLong(d.shopId());
+            out.writeLong(d.productId());
+        } else if (mutation instanceof ShopCreated s) {
+            out.writeByte(SHOP_CREATED);
+            out.writeLong(s.shopId());
+            out.writeLong(s.ownerId());
+            out.writeLong(Double.doubleToLongBits(s.latitude()));
+            out.writeLong(Double.doubleToLongBits(s.longitude()));
+            out.writeString(s.name());
+            out.writeString(s.address());
+            out.writeString(s.phone());
+            out.writeString(s.openHours());
+            out.writeString(s.deliveryOption());
+        } else if (mutation instanceof ShopDeleted d) {
+            out.writeByte(SHOP_DELETED);
+            out.writeLong(d.shopId());
+            out.writeLong(d.ownerId());
+        } else if (mutation instanceof Aborted a) {
+            out.writeByte(ABORTED);
+            out.writeLong(a.firstSequence());
+            out.writeInt(a.count());
+        } else {
+            throw new IllegalArgumentException("Unknown mutation: " + mutation);
+        }
+        byte[] record = out.toByteArray();
+        ByteBuffer.wrap(record).putInt(0, record.length - PREFIX_BYTES);
+        return record;
+    }
+
+    /**
+     * Stamps an encoded record with its sequence and timestamp and computes its checksum.
+     */
+    static void seal(byte[] record, long sequence, long timestampMillis) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        buffer.putLong(PREFIX_BYTES, sequence);
+        buffer.putLong(PREFIX_BYTES + 8, timestampMillis);
+        CRC32C crc = new CRC32C();
+        crc.update(record, PREFIX_BYTES, record.length - PREFIX_BYTES);
+        buffer.putInt(4, (int) crc.getValue());
+    }
+
+    /**
+     * Returns the length of the valid record at {@code offset} including its
+     * prefix, or 0 if there is none: the end of the segment, or a record torn
+     * by a crash.
+     */
+    static int validLength(ByteBuffer buffer, int offset, int limit) {
+        if (limit - offset < PREFIX_BYTES) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        if (length < FIXED_BYTES || length > limit - offset - PREFIX_BYTES) {
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + PREFIX_BYTES, length));
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+            return 0;
+        }
+        return PREFIX_BYTES + length;
+    }
+
+    /**
+     * Decodes the record at {@code offset}, which {@link #validLength} accepted.
+     */
+    static JournalRecord decode(ByteBuffer buffer, int offset) {
+        ByteBuffer in = buffer.slice(offset + PREFIX_BYTES, buffer.getInt(offset));
+        long sequence = in.getLong();
+        long timestamp = in.getLong();
+        byte type = in.get();
+        Mutation mutation = switch (type) {
+            case PRODUCT_CREATED, PRODUCT_UPDATED -> new ProductSaved(type == PRODUCT_CREATED, in.getLong(),
+                    in.getLong(), BigDecimal.valueOf(in.getLong(), 2), in.getInt(), readString(in), readString(in),
+                    readString(in));
+            case STOCK_ADJUSTED -> new StockAdjusted(in.getLong(), in.getLong(), in.getInt(), in.getInt());
+            case PRODUCT_DELETED -> new ProductDeleted(in.getLong(), in.getLong());
+            case SHOP_CREATED -> decodeShopCreated(in);
+            case SHOP_DELETED -> new ShopDeleted(in.getLong(), in.getLong());
+            case ABORTED -> new Aborted(in.getLong(), in.getInt());
+            default -> throw new IllegalStateException("Unknown journal record type " + type + " at " + sequence);
+        };
+        return new JournalRecord(sequence, timestamp, mutation);
+    }
+
+    private static ShopCreated decodeShopCreated(ByteBuffer in) {
+        // Coordinates are fixed-width and stored before the strings
+        long shopId = in.getLong();
+        long ownerId = in.getLong();
+        double latitude = Double.longBitsToDouble(in.getLong());
+        double longitude = Double.longBitsToDouble(in.getLong());
+        return new ShopCreated(shopId, ownerId, readString(in), readString(in), readString(in), latitude, longitude,
+                readString(in), readString(in));
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarint(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Minimal growable big-endian writer.
+     */
+    private static final class Writer {
+        private byte[] bytes = new byte[128];
+        private int size;
+
+        void skip(int count) {
+            ensure(count);
+            size += count;
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            ByteBuffer.wrap(bytes).putInt(size, value);
+            size += 4;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            ByteBuffer.wrap(bytes).putLong(size, value);
+            size += 8;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length + 1);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        private void ensure(int count) {
+            if (size + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + count));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.inventory.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads the journal back in sequence order, across all of its segments.
+ *
+ * A segment ends at its first zero length or at a record that fails its
+ * checksum, which is what a crash mid-append leaves behind. Sequences must
+ * then continue without a gap into the next segment; a gap means records were
+ * lost and is reported as an error rather than skipped.
+ */
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    /**
+     * Passes every record with a sequence of at least {@code fromSequence} to
+     * the consumer, oldest first.
+     *
+     * @return the sequence of the last record in the journal, or 0 if it is empty
+     * @throws IOException if a segment cannot be read or sequences have a gap
+     */
+    public static long read(Path dir, long fromSequence, Consumer<JournalRecord> consumer) throws IOException {
+        long expected = 0;
+        for (Path path : segments(dir)) {
+            SegmentScan scan = scan(path, expected, fromSequence, consumer);
+            expected = scan.lastSequence + 1;
+        }
+        return Math.max(0, expected - 1);
+    }
+
+    /**
+     * Segment files of the journal, oldest first.
+     */
+    static List<Path> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(JournalSegment::isSegment).sorted().toList();
+        }
+    }
+
+    /**
+     * Reads one segment.
+     *
+     * @param expected First sequence it must start with, or 0 for any
+     * @param consumer Receives records from {@code fromSequence} on; may be null
+     */
+    static SegmentScan scan(Path path, long expected, long fromSequence, Consumer<JournalRecord> consumer)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long first = JournalSegment.readHeader(buffer, path);
+            if (expected != 0 && first != expected) {
+                throw new IOException("Journal gap: expected sequence " + expected + " but " + path
+                        + " starts at " + first);
+            }
+            long sequence = first - 1;
+            int offset = JournalSegment.HEADER_BYTES;
+            int limit = buffer.limit();
+            int length;
+            while ((length = JournalCodec.validLength(buffer, offset, limit)) > 0) {
+                if (consumer != null && sequence + 1 >= fromSequence) {
+                    JournalRecord record = JournalCodec.decode(buffer, offset);
+                    if (record.sequence() != sequence + 1) {
+                        throw new IOException("Journal gap: expected sequence " + (sequence + 1) + " but found "
+                                + record.sequence() + " in " + path);
+                    }
+                    consumer.accept(record);
+                }
+                sequence++;
+                offset += length;
+            }
+            return new SegmentScan(first, sequence, offset);
+        }
+    }
+
+    /**
+     * @param firstSequence Sequence the segment starts at
+     * @param lastSequence  Sequence of its last valid record ({@code firstSequence - 1} if none)
+     * @param end           Byte offset just past its last valid record
+     */
+    record SegmentScan(long firstSequence, long lastSequence, int end) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.inventory.journal;
+
+/**
+ * A mutation as read back from the journal.
+ *
+ * @param sequence        Position in the journal, starting at 1 with no gaps
+ * @param timestampMillis When it was appended
+ * @param mutation        The change
+ */
+public record JournalRecord(long sequence, long timestampMillis, Mutation mutation) {
+}
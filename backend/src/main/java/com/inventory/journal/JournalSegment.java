@@ -0,0 +1,125 @@
+package com.inventory.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One preallocated, memory-mapped journal file.
+ *
+ * The file starts with a 16-byte header (magic, format version, sequence of
+ * its first record) followed by records back to back. Unused space is zero,
+ * so the first zero length marks the end. Files are named after their first
+ * sequence, which keeps them in order when listed.
+ */
+final class JournalSegment {
+
+    static final int MAGIC = 0x494A4E4C; // "IJNL"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    final Path path;
+    final long firstSequence;
+
+    private final MappedByteBuffer buffer;
+    private final ReentrantLock forceLock = new ReentrantLock();
+    // Written under the journal's append lock
+    private volatile int position;
+    private int forcedTo;
+
+    private JournalSegment(Path path, long firstSequence, MappedByteBuffer buffer, int position) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.buffer = buffer;
+        this.position = position;
+        this.forcedTo = position;
+    }
+
+    static Path pathFor(Path dir, long firstSequence) {
+        return dir.resolve(String.format("journal-%020d.seg", firstSequence));
+    }
+
+    static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith("journal-") && name.endsWith(".seg");
+    }
+
+    /**
+     * Creates and maps a new segment of {@code size} bytes.
+     */
+    static JournalSegment create(Path dir, long firstSequence, int size) throws IOException {
+        Path path = pathFor(dir, firstSequence);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Mapping past the end grows the file; the mapping outlives the channel
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putShort(4, VERSION);
+            buffer.putLong(8, firstSequence);
+            buffer.force(0, HEADER_BYTES);
+            return new JournalSegment(path, firstSequence, buffer, HEADER_BYTES);
+        }
+    }
+
+    /**
+     * Reads a segment's header and checks its magic and version.
+     *
+     * @return the sequence of its first record
+     */
+    static long readHeader(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a journal segment: " + path);
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported journal format version " + buffer.getShort(4) + " in " + path);
+        }
+        return buffer.getLong(8);
+    }
+
+    boolean hasRoom(int bytes) {
+        return buffer.capacity() - position >= bytes;
+    }
+
+    boolean isEmpty() {
+        return position == HEADER_BYTES;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Copies a sealed record into the mapping. Caller holds the append lock
+     * and has checked {@link #hasRoom}.
+     */
+    void append(byte[] record) {
+        int at = position;
+        // Length last, so a reader never sees a length over bytes not yet written
+        buffer.put(at + 4, record, 4, record.length - 4);
+        buffer.put(at, record, 0, 4);
+        position = at + record.length;
+    }
+
+    int position() {
+        return position;
+    }
+
+    /**
+     * Writes everything appended before {@code end} through to the disk.
+     */
+    void force(int end) {
+        forceLock.lock();
+        try {
+            if (end > forcedTo) {
+                buffer.force(forcedTo, end - forcedTo);
+                forcedTo = end;
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.inventory.journal;
+
+import com.inventory.journal.Mutation.Aborted;
+import com.inventory.journal.Mutation.ProductDeleted;
+import com.inventory.journal.Mutation.ProductSaved;
+import com.inventory.journal.Mutation.ShopDeleted;
+import com.inventory.journal.Mutation.StockAdjusted;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Command-line reader for the mutation journal; run with
+ * {@code ./gradlew journalTool --args='<command> <dir>'}.
+ *
+ * <ul>
+ * <li>{@code dump <dir> [fromSequence]} prints one line per record.</li>
+ * <li>{@code replay <dir>} applies every record that was not rolled back and
+ * prints the resulting products as CSV (id, shop_id, price, stock), in the
+ * same format as
+ * {@code \copy (SELECT id, shop_id, price, stock FROM product ORDER BY id) TO STDOUT WITH CSV},
+ * so the two can be compared with diff.</li>
+ * </ul>
+ */
+public final class JournalTool {
+
+    private JournalTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("dump") || args[0].equals("replay"))) {
+            System.err.println("Usage: JournalTool dump <dir> [fromSequence] | replay <dir>");
+            System.exit(2);
+        }
+        Path dir = Path.of(args[1]);
+        if (args[0].equals("dump")) {
+            long from = args.length > 2 ? Long.parseLong(args[2]) : 1;
+            dump(dir, from, System.out);
+        } else {
+            replay(dir, System.out);
+        }
+    }
+
+    static void dump(Path dir, long fromSequence, PrintStream out) throws IOException {
+        long last = JournalReader.read(dir, fromSequence, record -> out.println(record.sequence() + " "
+                + Instant.ofEpochMilli(record.timestampMillis()) + " " + record.mutation()));
+        System.err.println("Last sequence: " + last);
+    }
+
+    static void replay(Path dir, PrintStream out) throws IOException {
+        // Rollback markers follow the records they cancel, so find them first
+        Set<Long> aborted = new HashSet<>();
+        JournalReader.read(dir, 1, record -> {
+            if (record.mutation() instanceof Aborted a) {
+                for (long s = a.firstSequence(); s < a.firstSequence() + a.count(); s++) {
+                    aborted.add(s);
+                }
+            }
+        });
+
+        Map<Long, ProductRow> products = new TreeMap<>();
+        long[] unknown = new long[1];
+        JournalReader.read(dir, 1, record -> {
+            if (aborted.contains(record.sequence())) {
+                return;
+            }
+            Mutation m = record.mutation();
+            if (m instanceof ProductSaved p) {
+                products.put(p.productId(), new ProductRow(p.shopId(), p.price(), p.stock()));
+            } else if (m instanceof StockAdjusted s) {
+                ProductRow row = products.get(s.productId());
+                if (row != null) {
+                    row.stock = s.stock();
+                } else {
+                    unknown[0]++;
+                }
+            } else if (m instanceof ProductDeleted d) {
+                products.remove(d.productId());
+            } else if (m instanceof ShopDeleted d) {
+                products.values().removeIf(row -> row.shopId == d.shopId());
+            }
+        });
+
+        products.forEach((id, row) -> out.println(id + "," + row.shopId + "," + row.price.toPlainString() + ","
+                + row.stock));
+        if (unknown[0] > 0) {
+            System.err.println(unknown[0] + " stock changes to products created before the journal started were skipped");
+        }
+    }
+
+    private static final class ProductRow {
+        final long shopId;
+        final BigDecimal price;
+        int stock;
+
+        ProductRow(long shopId, BigDecimal price, int stock) {
+            this.shopId = shopId;
+            this.price = price;
+            this.stock = stock;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.inventory.journal;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.dto.ShopResponse;
+import com.inventory.dto.StockLevelResponse;
+
+import java.math.BigDecimal;
+
+/**
+ * One product or shop change recorded in the {@link MutationJournal}.
+ * Each record carries the full resulting state the replay needs, so the
+ * journal can be folded into the final catalog without the database.
+ */
+public sealed interface Mutation {
+
+    /**
+     * A product as it was inserted or after an update.
+     */
+    record ProductSaved(boolean created, long shopId, long productId, BigDecimal price, int stock, String name,
+            String description, String category) implements Mutation {
+    }
+
+    /**
+     * A stock change and the level it produced.
+     */
+    record StockAdjusted(long shopId, long productId, int delta, int stock) implements Mutation {
+    }
+
+    record ProductDeleted(long shopId, long productId) implements Mutation {
+    }
+
+    record ShopCreated(long shopId, long ownerId, String name, String address, String phone, double latitude,
+            double longitude, String openHours, String deliveryOption) implements Mutation {
+    }
+
+    /**
+     * A deleted shop; its products were deleted with it.
+     */
+    record ShopDeleted(long shopId, long ownerId) implements Mutation {
+    }
+
+    /**
+     * Written by the journal itself: the transaction that recorded sequences
+     * {@code firstSequence} to {@code firstSequence + count - 1} rolled back.
+     */
+    record Aborted(long firstSequence, int count) implements Mutation {
+    }
+
+    static Mutation productCreated(ProductResponse product) {
+        return productSaved(true, product);
+    }
+
+    static Mutation productUpdated(ProductResponse product) {
+        return productSaved(false, product);
+    }
+
+    static Mutation stockAdjusted(StockLevelResponse level, int delta) {
+        return new StockAdjusted(level.getShopId(), level.getProductId(), delta, level.getStock());
+    }
+
+    static Mutation productDeleted(Long shopId, Long productId) {
+        return new ProductDeleted(shopId, productId);
+    }
+
+    static Mutation shopCreated(ShopResponse shop) {
+        return new ShopCreated(shop.getId(), shop.getOwnerId(), shop.getName(), shop.getAddress(), shop.getPhone(),
+                shop.getLatitude(), shop.getLongitude(), shop.getOpenHours(), shop.getDeliveryOption());
+    }
+
+    static Mutation shopDeleted(Long shopId, Long ownerId) {
+        return new ShopDeleted(shopId, ownerId);
+    }
+
+    private static Mutation productSaved(boolean created, ProductResponse product) {
+        return new ProductSaved(created, product.getShopId(), product.getId(), product.getPrice(),
+                product.getStock(), product.getName(), product.getDescription(), product.getCategory());
+    }
+}
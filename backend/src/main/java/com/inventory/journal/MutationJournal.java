@@ -0,0 +1,382 @@
+package com.inventory.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only journal of every committed product and shop mutation, kept on
+ * local disk for reconciliation against the database.
+ *
+ * Records go into preallocated memory-mapped segments, so an append is a
+ * memory copy under a short lock; a new segment is started when one fills up.
+ * A single flusher thread forces appended records to disk. In group-commit
+ * mode each writer waits for the force that covers its records, and one force
+ * covers everything appended while the previous one ran, so the cost of a
+ * disk sync is shared by all concurrent writers. In async mode writers do not
+ * wait and the flusher runs every flush interval.
+ *
+ * Mutations recorded inside a transaction are appended just before it
+ * commits, while its row locks are still held, so two writes to the same row
+ * are journaled in the order the database applied them, and the commit waits
+ * for the journal. If the commit then fails an {@link Mutation.Aborted} record
+ * cancels them. Journal failures are logged and counted, never thrown: the
+ * database stays authoritative.
+ *
+ * Writers are serialized with a ReentrantLock instead of synchronized so a
+ * virtual thread waiting for the journal does not pin its carrier thread.
+ */
+@Component
+@Slf4j
+public class MutationJournal {
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean groupCommit;
+    private final long flushIntervalMs;
+    private final long retentionMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appendedSignal = lock.newCondition();
+    private final Condition flushedSignal = lock.newCondition();
+    private JournalSegment segment;
+    private long nextSequence;
+    private long lastAppended;
+    private long lastFlushed;
+    private volatile boolean running;
+    private Thread flusher;
+
+    private final Counter appends;
+    private final Counter bytes;
+    private final Counter failures;
+    private final Timer forces;
+    private final Timer commitWait;
+
+    /**
+     * @param sync group (writers wait for the disk) or async (they do not)
+     */
+    public MutationJournal(
+            @Value("${app.journal.enabled:true}") boolean enabled,
+            @Value("${app.journal.dir:./data/journal}") String dir,
+            @Value("${app.journal.segment-bytes:67108864}") int segmentBytes,
+            @Value("${app.journal.sync:group}") String sync,
+            @Value("${app.journal.flush-interval-ms:10}") long flushIntervalMs,
+            @Value("${app.journal.retention-hours:0}") long retentionHours,
+            MeterRegistry meterRegistry) {
+        if (!sync.equals("group") && !sync.equals("async")) {
+            throw new IllegalArgumentException("app.journal.sync must be group or async, not " + sync);
+        }
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.segmentBytes = segmentBytes;
+        this.groupCommit = sync.equals("group");
+        this.flushIntervalMs = flushIntervalMs;
+        this.retentionMs = TimeUnit.HOURS.toMillis(retentionHours);
+
+        this.appends = Counter.builder("journal.appends").register(meterRegistry);
+        this.bytes = Counter.builder("journal.bytes").baseUnit("bytes").register(meterRegistry);
+        this.failures = Counter.builder("journal.failures")
+                .description("Mutations that could not be journaled")
+                .register(meterRegistry);
+        this.forces = Timer.builder("journal.force")
+                .description("Time to force appended records to disk")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.commitWait = Timer.builder("journal.commit.wait")
+                .description("Time a committing writer waits for its records to reach the disk")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens the journal: seals the last segment at its last intact record and
+     * starts a new one after it.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(dir);
+        List<Path> existing = JournalReader.segments(dir);
+        nextSequence = 1;
+        if (!existing.isEmpty()) {
+            Path last = existing.get(existing.size() - 1);
+            JournalReader.SegmentScan scan = JournalReader.scan(last, 0, Long.MAX_VALUE, null);
+            nextSequence = scan.lastSequence() + 1;
+            // Drops the unused space and anything a crash left after the last intact record
+            try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+                channel.truncate(scan.end());
+                channel.force(true);
+            }
+            if (scan.lastSequence() < scan.firstSequence()) {
+                Files.delete(last);
+            }
+        }
+        lastAppended = nextSequence - 1;
+        lastFlushed = lastAppended;
+        segment = JournalSegment.create(dir, nextSequence, segmentBytes);
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "mutation-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Mutation journal open in {} at sequence {}", dir.toAbsolutePath(), nextSequence);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        lock.lock();
+        try {
+            appendedSignal.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        lock.lock();
+        try {
+            segment.force(segment.position());
+            lastFlushed = lastAppended;
+            flushedSignal.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a mutation: when the current transaction commits, or right away
+     * outside a transaction.
+     */
+    public void record(Mutation mutation) {
+        recordAll(List.of(mutation));
+    }
+
+    /**
+     * Records several mutations of one transaction, which share one wait for the disk.
+     */
+    public void recordAll(List<Mutation> mutations) {
+        if (!enabled || mutations.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(mutations);
+            return;
+        }
+        pendingForTransaction().mutations.addAll(mutations);
+    }
+
+    /**
+     * Appends and, in group-commit mode, waits until the records are on disk.
+     *
+     * @return the sequence of the first record, or -1 if nothing was written
+     */
+    long write(List<Mutation> mutations) {
+        long first;
+        try {
+            first = append(mutations);
+        } catch (RuntimeException e) {
+            failures.increment(mutations.size());
+            log.error("Could not journal {} mutations", mutations.size(), e);
+            return -1;
+        }
+        if (groupCommit) {
+            awaitFlushed(first + mutations.size() - 1);
+        }
+        return first;
+    }
+
+    private long append(List<Mutation> mutations) {
+        // Encoded outside the lock; only sequencing and the copy are serialized
+        List<byte[]> records = new ArrayList<>(mutations.size());
+        int total = 0;
+        for (Mutation mutation : mutations) {
+            byte[] record = JournalCodec.encode(mutation);
+            if (record.length > segmentBytes - JournalSegment.HEADER_BYTES) {
+                throw new IllegalArgumentException("Record of " + record.length + " bytes exceeds the segment size");
+            }
+            records.add(record);
+            total += record.length;
+        }
+        long now = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Mutation journal is closed");
+            }
+            long first = nextSequence;
+            for (byte[] record : records) {
+                if (!segment.hasRoom(record.length)) {
+                    rotate();
+                }
+                JournalCodec.seal(record, nextSequence++, now);
+                segment.append(record);
+                lastAppended = nextSequence - 1;
+            }
+            if (groupCommit) {
+                appendedSignal.signal();
+            }
+            appends.increment(records.size());
+            bytes.increment(total);
+            return first;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seals the full segment and starts the next one. Runs under the lock; the
+     * old segment is forced first so the flusher only ever forces the current one.
+     */
+    private void rotate() {
+        JournalSegment full = segment;
+        full.force(full.position());
+        try {
+            segment = JournalSegment.create(dir, nextSequence, segmentBytes);
+        } catch (IOException e) {
+            segment = full;
+            throw new IllegalStateException("Could not start journal segment at sequence " + nextSequence, e);
+        }
+        if (retentionMs > 0) {
+            deleteExpiredSegments(full.path);
+        }
+    }
+
+    private void deleteExpiredSegments(Path newestSealed) {
+        FileTime cutoff = FileTime.fromMillis(System.currentTimeMillis() - retentionMs);
+        try {
+            for (Path path : JournalReader.segments(dir)) {
+                if (path.compareTo(newestSealed) > 0) {
+                    break;
+                }
+                if (Files.getLastModifiedTime(path).compareTo(cutoff) < 0) {
+                    Files.delete(path);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete expired journal segments", e);
+        }
+    }
+
+    private void awaitFlushed(long sequence) {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            while (lastFlushed < sequence && running) {
+                flushedSignal.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        commitWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void flushLoop() {
+        while (running) {
+            JournalSegment target;
+            int end;
+            long sequence;
+            lock.lock();
+            try {
+                while (running && lastAppended == lastFlushed) {
+                    // Group commit is woken by appends; async mode is not signalled and forces once per interval
+                    appendedSignal.await(flushIntervalMs, TimeUnit.MILLISECONDS);
+                }
+                target = segment;
+                end = segment.position();
+                sequence = lastAppended;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            long start = System.nanoTime();
+            try {
+                target.force(end);
+            } catch (RuntimeException e) {
+                // Writers are released anyway: their database commit must not hang on the journal
+                failures.increment();
+                log.error("Could not force journal segment {}", target.path, e);
+            }
+            forces.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            lock.lock();
+            try {
+                lastFlushed = Math.max(lastFlushed, sequence);
+                flushedSignal.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private PendingMutations pendingForTransaction() {
+        // Synchronizations are suspended with their transaction, so a nested
+        // REQUIRES_NEW transaction gets its own list
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingMutations pending && pending.journal() == this) {
+                return pending;
+            }
+        }
+        PendingMutations pending = new PendingMutations();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * The mutations of one transaction, appended when it is about to commit.
+     */
+    private final class PendingMutations implements TransactionSynchronization {
+        final List<Mutation> mutations = new ArrayList<>();
+        long firstSequence = -1;
+
+        MutationJournal journal() {
+            return MutationJournal.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            firstSequence = write(mutations);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            // STATUS_UNKNOWN may have committed, so its records are kept
+            if (status == STATUS_ROLLED_BACK && firstSequence > 0) {
+                try {
+                    append(List.of(new Mutation.Aborted(firstSequence, mutations.size())));
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.error("Could not journal the rollback of sequences from {}", firstSequence, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * ID allocation shared by the JPA entities and the JDBC bulk loaders.
+ *
+ * The ID sequences step by {@link #SIZE} (migration V5), and each nextval
+ * reserves the block of {@code SIZE} IDs ending at the value it returns.
+ * Hibernate's pooled optimizer hands such a block out one insert at a time,
+ * so inserts can be batched; the bulk loaders take whole blocks.
+ */
+public final class IdBlocks {
+
+    public static final int SIZE = 50;
+
+    private static final String RESERVE_SQL = "SELECT nextval(pg_get_serial_sequence(?, 'id')) "
+            + "FROM generate_series(1, ?)";
+
+    private IdBlocks() {
+    }
+
+    /**
+     * Reserves IDs for new rows of the table in one round-trip.
+     *
+     * @return {@code count} unused IDs, ascending within each block but not
+     *         contiguous when other sessions use the sequence meanwhile
+     */
+    public static long[] reserve(JdbcTemplate jdbcTemplate, String table, int count) {
+        long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+        List<Long> blockEnds = jdbcTemplate.queryForList(RESERVE_SQL, Long.class, table,
+                (count + SIZE - 1) / SIZE);
+        int next = 0;
+        for (long end : blockEnds) {
+            for (long id = end - SIZE + 1; id <= end && next < count; id++) {
+                ids[next++] = id;
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,14 @@
+package com.inventory.repository;
+
+/**
+ * Bounds of a change-feed read, taken from the reading transaction's snapshot.
+ *
+ * @param snapshotXmin   Oldest transaction still running; every change by an
+ *                       older one is visible, so this is the next cursor
+ * @param snapshotXmax   First transaction ID not yet assigned; a cursor above
+ *                       it did not come from this database
+ * @param purgedThrough  Newest purged tombstone; a cursor not past it may have
+ *                       missed a delete
+ */
+public record ProductChangeHorizon(long snapshotXmin, long snapshotXmax, long purgedThrough) {
+}
@@ -1,18 +1,58 @@
 package com.inventory.repository;
 
+import com.inventory.dto.ProductResponse;
 import com.inventory.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     List<Product> findByShopId(Long shopId);
 
     @Query("SELECT p FROM Product p WHERE p.id = :id AND p.shop.ownerId = :ownerId")
     Optional<Product> findByIdAndShopOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id AND p.shop.ownerId = :ownerId")
+    Optional<Product> findByIdAndShopOwnerIdForUpdate(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    @Query("SELECT new com.inventory.dto.ProductResponse(p.id, p.shop.id, p.name, p.description, p.price, "
+            + "p.stock, p.category) FROM Product p WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.inventory.dto.ProductResponse(p.id, p.shop.id, p.name, p.description, p.price, "
+            + "p.stock, p.category) FROM Product p")
+    Stream<ProductResponse> streamAllResponses();
+
+    /**
+     * IDs of the products in the given shops, read before the shops are
+     * deleted so their products can be dropped from the in-memory indexes.
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.shop.id IN :shopIds")
+    List<Long> findIdsByShopIdIn(@Param("shopIds") Collection<Long> shopIds);
+
+    /**
+     * Returns (id, name) of the listed products that still exist.
+     * Used only to explain a failed bulk delete.
+     */
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Object[]> findIdAndNameByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,66 @@
+package com.inventory.repository;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.dto.StockLevelResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Hand-written product queries that Spring Data cannot derive.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Fetches one keyset page of a shop's products in a single round-trip.
+     *
+     * @param shopId     the shop to list
+     * @param sort       sort column (ties are broken by id)
+     * @param descending sort direction
+     * @param afterValue sort value of the last row of the previous page, or null for the first page
+     * @param afterId    id of the last row of the previous page, or null for the first page
+     * @param limit      maximum number of rows, or null for no limit
+     * @return empty if the shop does not exist, otherwise the (possibly empty) page
+     */
+    Optional<List<ProductResponse>> findShopProductsPage(Long shopId, ProductSort sort, boolean descending,
+            Object afterValue, Long afterId, Integer limit);
+
+    /**
+     * Atomically adds {@code delta} to a product's stock, in a single conditional
+     * UPDATE that only applies if the caller owns the product's shop and the
+     * result stays within 0 and {@link Integer#MAX_VALUE}.
+     *
+     * @return the new stock level, or empty if no row matched
+     */
+    Optional<StockLevelResponse> adjustStock(Long productId, Long ownerId, int delta);
+
+    /**
+     * Deletes the listed products that belong to shops of the given owner, in one statement.
+     *
+     * @return the shop ID of every deleted product, keyed by product ID
+     */
+    Map<Long, Long> deleteOwnedProducts(Collection<Long> ids, Long ownerId);
+
+    /**
+     * Reads the change-feed bounds of the current transaction's snapshot.
+     * Call first in a REPEATABLE READ transaction, so the change queries that
+     * follow see the same snapshot.
+     *
+     * @return empty if the shop does not exist
+     */
+    Optional<ProductChangeHorizon> findChangeHorizon(Long shopId);
+
+    /**
+     * Returns a shop's products last written by transaction {@code since} or
+     * a later one, oldest change first.
+     */
+    List<ProductResponse> findChangedSince(Long shopId, long since, int limit);
+
+    /**
+     * Returns the IDs of a shop's products deleted by transaction {@code since}
+     * or a later one, oldest delete first.
+     */
+    List<Long> findDeletedSince(Long shopId, long since, int limit);
+}
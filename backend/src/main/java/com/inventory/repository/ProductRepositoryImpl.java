@@ -0,0 +1,182 @@
+package com.inventory.repository;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.dto.StockLevelResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<List<ProductResponse>> findShopProductsPage(Long shopId, ProductSort sort, boolean descending,
+            Object afterValue, Long afterId, Integer limit) {
+        String column = sort.getColumn();
+        String direction = descending ? "DESC" : "ASC";
+        boolean hasCursor = afterValue != null && afterId != null;
+
+        // The shop row drives a LATERAL join so a single query tells a missing shop
+        // (no rows) apart from an empty page (one row with null product columns).
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT s.id, p.id, p.name, p.description, p.price, p.stock, p.category ")
+                .append("FROM shop s LEFT JOIN LATERAL (")
+                .append("SELECT id, name, description, price, stock, category FROM product ")
+                .append("WHERE shop_id = s.id");
+        if (hasCursor) {
+            sql.append(" AND (").append(column).append(", id) ")
+                    .append(descending ? "<" : ">")
+                    .append(" (:afterValue, :afterId)");
+        }
+        sql.append(" ORDER BY ").append(column).append(' ').append(direction)
+                .append(", id ").append(direction);
+        if (limit != null) {
+            sql.append(" LIMIT :limit");
+        }
+        sql.append(") p ON TRUE WHERE s.id = :shopId");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("shopId", shopId);
+        if (hasCursor) {
+            query.setParameter("afterValue", afterValue);
+            query.setParameter("afterId", afterId);
+        }
+        if (limit != null) {
+            query.setParameter("limit", limit);
+        }
+
+        List<Object[]> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<ProductResponse> products = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (row[1] == null) {
+                continue;
+            }
+            products.add(new ProductResponse(
+                    ((Number) row[1]).longValue(),
+                    ((Number) row[0]).longValue(),
+                    (String) row[2],
+                    (String) row[3],
+                    (BigDecimal) row[4],
+                    ((Number) row[5]).intValue(),
+                    (String) row[6]));
+        }
+        return Optional.of(products);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<StockLevelResponse> adjustStock(Long productId, Long ownerId, int delta) {
+        // The row lock is held only for this statement, and the stock check is
+        // evaluated against the latest committed value, so concurrent sales of
+        // the same product never lose updates or oversell. The check is done in
+        // bigint so a result outside the integer column matches no row instead
+        // of failing the statement.
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "UPDATE product p SET stock = p.stock + :delta FROM shop s "
+                        + "WHERE p.id = :id AND p.shop_id = s.id AND s.owner_id = :ownerId "
+                        + "AND p.stock::bigint + :delta BETWEEN 0 AND 2147483647 RETURNING p.stock, p.shop_id")
+                .setParameter("delta", delta)
+                .setParameter("id", productId)
+                .setParameter("ownerId", ownerId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        return Optional.of(new StockLevelResponse(productId, ((Number) row[1]).longValue(),
+                ((Number) row[0]).intValue()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, Long> deleteOwnedProducts(Collection<Long> ids, Long ownerId) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "DELETE FROM product p USING shop s "
+                        + "WHERE p.shop_id = s.id AND p.id IN (:ids) AND s.owner_id = :ownerId "
+                        + "RETURNING p.id, p.shop_id")
+                .setParameter("ids", ids)
+                .setParameter("ownerId", ownerId)
+                .getResultList();
+        Map<Long, Long> shopByProduct = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            shopByProduct.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return shopByProduct;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<ProductChangeHorizon> findChangeHorizon(Long shopId) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint, "
+                        + "pg_snapshot_xmax(pg_current_snapshot())::text::bigint, "
+                        + "(SELECT purged_through FROM product_tombstone_horizon WHERE id = 1) "
+                        + "FROM shop WHERE id = :shopId")
+                .setParameter("shopId", shopId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        return Optional.of(new ProductChangeHorizon(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ProductResponse> findChangedSince(Long shopId, long since, int limit) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT id, name, description, price, stock, category FROM product "
+                        + "WHERE shop_id = :shopId AND change_xid >= :since "
+                        + "ORDER BY change_xid, id LIMIT :limit")
+                .setParameter("shopId", shopId)
+                .setParameter("since", since)
+                .setParameter("limit", limit)
+                .getResultList();
+        List<ProductResponse> products = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            products.add(new ProductResponse(
+                    ((Number) row[0]).longValue(),
+                    shopId,
+                    (String) row[1],
+                    (String) row[2],
+                    (BigDecimal) row[3],
+                    ((Number) row[4]).intValue(),
+                    (String) row[5]));
+        }
+        return products;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> findDeletedSince(Long shopId, long since, int limit) {
+        List<Object> rows = entityManager.createNativeQuery(
+                "SELECT product_id FROM product_tombstone "
+                        + "WHERE shop_id = :shopId AND change_xid >= :since "
+                        + "ORDER BY change_xid, product_id LIMIT :limit")
+                .setParameter("shopId", shopId)
+                .setParameter("since", since)
+                .setParameter("limit", limit)
+                .getResultList();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            ids.add(((Number) row).longValue());
+        }
+        return ids;
+    }
+}
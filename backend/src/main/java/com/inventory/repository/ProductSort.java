@@ -0,0 +1,42 @@
+package com.inventory.repository;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Sort keys supported by the paginated product listing.
+ * Each key maps to a whitelisted column that is backed by a composite
+ * (shop_id, column, id) index, so keyset pages are index range scans.
+ */
+public enum ProductSort {
+    ID("id"),
+    NAME("name"),
+    PRICE("price"),
+    STOCK("stock");
+
+    private final String column;
+
+    ProductSort(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Parses a cursor value back into the Java type bound for this column.
+     */
+    public Object parseValue(String value) {
+        return switch (this) {
+            case ID -> Long.valueOf(value);
+            case NAME -> value;
+            case PRICE -> new BigDecimal(value);
+            case STOCK -> Integer.valueOf(value);
+        };
+    }
+
+    public static ProductSort fromParam(String param) {
+        return valueOf(param.trim().toUpperCase(Locale.ROOT));
+    }
+}
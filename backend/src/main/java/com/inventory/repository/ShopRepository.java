@@ -1,14 +1,68 @@
 package com.inventory.repository;
 
+import com.inventory.dto.ShopResponse;
 import com.inventory.entity.Shop;
+import com.inventory.geo.ShopLocation;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface ShopRepository extends JpaRepository<Shop, Long> {
-    List<Shop> findByOwnerId(Long ownerId);
+
+    /**
+     * Builds ShopResponse straight from the selected columns, so read paths
+     * never create managed Shop entities or dirty-checking snapshots.
+     */
+    String SELECT_RESPONSE = "SELECT new com.inventory.dto.ShopResponse(s.id, s.name, s.address, s.phone, "
+            + "s.ownerId, s.latitude, s.longitude, s.openHours, s.deliveryOption) ";
+
     boolean existsByIdAndOwnerId(Long id, Long ownerId);
-}
 
+    @Query("SELECT s.ownerId FROM Shop s WHERE s.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    @Query(SELECT_RESPONSE + "FROM Shop s WHERE s.id = :id")
+    Optional<ShopResponse> findResponseById(@Param("id") Long id);
+
+    @Query("SELECT s.id FROM Shop s WHERE s.ownerId = :ownerId ORDER BY s.id")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(SELECT_RESPONSE + "FROM Shop s WHERE s.ownerId = :ownerId ORDER BY s.id")
+    List<ShopResponse> findResponsesByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(SELECT_RESPONSE + "FROM Shop s WHERE s.id IN :ids ORDER BY s.id")
+    List<ShopResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_RESPONSE + "FROM Shop s ORDER BY s.id")
+    List<ShopResponse> findAllResponses();
+
+    @Query(SELECT_RESPONSE + "FROM Shop s WHERE s.id > :afterId ORDER BY s.id")
+    List<ShopResponse> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_RESPONSE + "FROM Shop s ORDER BY s.id")
+    Stream<ShopResponse> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.inventory.geo.ShopLocation(s.id, s.latitude, s.longitude) FROM Shop s")
+    Stream<ShopLocation> streamLocations();
+}
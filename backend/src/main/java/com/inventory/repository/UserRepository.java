@@ -1,12 +1,54 @@
 package com.inventory.repository;
 
+import com.inventory.dto.UserResponse;
 import com.inventory.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.inventory.dto.UserResponse(u.id, u.username, u.role) FROM User u WHERE u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+
+    @Query("SELECT new com.inventory.dto.UserResponse(u.id, u.username, u.role) FROM User u ORDER BY u.id")
+    List<UserResponse> findAllResponses();
+
+    @Query("SELECT new com.inventory.dto.UserResponse(u.id, u.username, u.role) "
+            + "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponse> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.inventory.dto.UserResponse(u.id, u.username, u.role) FROM User u ORDER BY u.id")
+    Stream<UserResponse> streamAll();
+
+    /**
+     * Replaces a password hash only if it is still the one that was verified,
+     * so a re-hash never overwrites a password changed in the meantime.
+     *
+     * @return number of rows updated (0 or 1)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash);
+}
@@ -0,0 +1,122 @@
+package com.inventory.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for expiring large numbers of timers cheaply.
+ *
+ * The lowest wheel has {@code wheelSize} slots of {@code tickMs}; each
+ * overflow wheel has slots as wide as the whole wheel below it. Adding a timer
+ * and expiring a slot are O(1); timers in an overflow wheel are cascaded down
+ * as their slot comes due. Timers fire no earlier than their deadline and at
+ * most one tick late.
+ *
+ * Not thread-safe: it is meant to be driven by a single ticker thread.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final Level root;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size at least 2");
+        }
+        this.root = new Level(tickMs, wheelSize, startMs);
+    }
+
+    /**
+     * Schedules a payload.
+     *
+     * @return false if the deadline has already passed; the payload is then not scheduled
+     */
+    public boolean add(T payload, long deadlineMs) {
+        return root.add(new Timer<>(payload, deadlineMs));
+    }
+
+    /**
+     * Advances the clock and returns every payload whose deadline is at or before {@code nowMs}.
+     */
+    public List<T> advanceTo(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        while (nowMs >= root.currentTime + root.tickMs) {
+            // The slot that just ended only holds timers with deadlines inside it
+            for (Timer<T> timer : root.take(root.currentTime)) {
+                expired.add(timer.payload);
+            }
+            root.currentTime += root.tickMs;
+            cascade(root.overflow, root.currentTime);
+        }
+        return expired;
+    }
+
+    private void cascade(Level level, long time) {
+        if (level == null || time % level.tickMs != 0) {
+            return;
+        }
+        level.currentTime = time;
+        List<Timer<T>> due = level.take(time);
+        cascade(level.overflow, time);
+        for (Timer<T> timer : due) {
+            root.add(timer);
+        }
+    }
+
+    private static final class Timer<T> {
+        private final T payload;
+        private final long deadlineMs;
+
+        private Timer(T payload, long deadlineMs) {
+            this.payload = payload;
+            this.deadlineMs = deadlineMs;
+        }
+    }
+
+    private final class Level {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final List<List<Timer<T>>> slots;
+        private long currentTime;
+        private Level overflow;
+
+        private Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.slots = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                slots.add(new ArrayList<>());
+            }
+            this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+        }
+
+        private boolean add(Timer<T> timer) {
+            if (timer.deadlineMs < currentTime) {
+                return false;
+            }
+            if (timer.deadlineMs < currentTime + interval) {
+                slots.get(slotOf(timer.deadlineMs)).add(timer);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, wheelSize, currentTime);
+            }
+            return overflow.add(timer);
+        }
+
+        private List<Timer<T>> take(long time) {
+            int slot = slotOf(time);
+            List<Timer<T>> timers = slots.get(slot);
+            if (timers.isEmpty()) {
+                return List.of();
+            }
+            slots.set(slot, new ArrayList<>());
+            return timers;
+        }
+
+        private int slotOf(long time) {
+            return (int) Math.floorMod(time / tickMs, (long) wheelSize);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.inventory.reservation;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A time-limited hold on some units of one product.
+ * Status only moves forward from HELD, via compare-and-set, so confirm,
+ * release and expiry can race safely and exactly one of them wins.
+ */
+@Getter
+public class Reservation {
+
+    private final String id;
+    private final Long productId;
+    private final Long ownerId;
+    private final int quantity;
+    private final long expiresAtMillis;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final AtomicReference<ReservationStatus> status;
+
+    public Reservation(String id, Long productId, Long ownerId, int quantity, long expiresAtMillis,
+            ReservationStatus status) {
+        this.id = id;
+        this.productId = productId;
+        this.ownerId = ownerId;
+        this.quantity = quantity;
+        this.expiresAtMillis = expiresAtMillis;
+        this.status = new AtomicReference<>(status);
+    }
+
+    public ReservationStatus getStatus() {
+        return status.get();
+    }
+
+    boolean transition(ReservationStatus from, ReservationStatus to) {
+        return status.compareAndSet(from, to);
+    }
+}
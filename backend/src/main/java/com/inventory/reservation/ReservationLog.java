@@ -0,0 +1,220 @@
+package com.inventory.reservation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Append-only write-ahead log of reservation state changes.
+ *
+ * Every hold, confirmation, release, expiry and flush is appended as one text
+ * line before the call returns, so after a crash the open holds and the
+ * confirmed-but-unflushed units can be rebuilt by replaying the file. Appends
+ * reach the OS immediately; {@link #sync()} forces them to disk and is called
+ * on every engine tick (group commit).
+ *
+ * Closed reservations are only dropped when the log is rewritten, so the
+ * engine compacts it whenever it has grown well past its live contents.
+ *
+ * Writers are serialized with a ReentrantLock instead of synchronized so a
+ * virtual thread waiting for the log does not pin its carrier thread.
+ */
+@Slf4j
+class ReservationLog implements Closeable {
+
+    private static final char SEP = '|';
+
+    private final Path path;
+    private final long compactBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+    private boolean dirty;
+    private long size;
+    private long sizeAfterRewrite;
+
+    /**
+     * @param compactBytes Size below which the log is never compacted
+     */
+    ReservationLog(Path path, long compactBytes) {
+        this.path = path;
+        this.compactBytes = compactBytes;
+    }
+
+    /**
+     * Reads the existing log and returns the reservations that are still open
+     * (HELD) or confirmed but not yet flushed.
+     */
+    Map<String, Reservation> replay() throws IOException {
+        Map<String, Reservation> open = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return open;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\|");
+                try {
+                    switch (parts[0]) {
+                        case "R" -> open.put(parts[1], new Reservation(parts[1], Long.valueOf(parts[2]),
+                                Long.valueOf(parts[3]), Integer.parseInt(parts[4]), Long.parseLong(parts[5]),
+                                ReservationStatus.HELD));
+                        case "C" -> {
+                            Reservation r = open.get(parts[1]);
+                            if (r != null) {
+                                r.transition(ReservationStatus.HELD, ReservationStatus.CONFIRMED);
+                            }
+                        }
+                        case "X", "E", "F" -> open.remove(parts[1]);
+                        default -> log.warn("Skipping unknown reservation log record: {}", line);
+                    }
+                } catch (RuntimeException e) {
+                    // A torn final line after a crash; everything before it is intact
+                    log.warn("Skipping malformed reservation log record: {}", line);
+                }
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Replaces the log with a compact one holding only the given reservations
+     * and opens it for appending.
+     *
+     * @param open Called while appends are blocked, so every change it does not
+     *             reflect is appended to the new log after it
+     */
+    void rewrite(Supplier<? extends Collection<Reservation>> open) throws IOException {
+        lock.lock();
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            long written = 0;
+            try {
+                for (Reservation r : open.get()) {
+                    written += write(out, reserveRecord(r));
+                    if (r.getStatus() == ReservationStatus.CONFIRMED) {
+                        written += write(out, "C" + SEP + r.getId() + '\n');
+                    }
+                }
+                out.force(true);
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                out.close();
+                throw e;
+            }
+            // The new file stays open across the rename, so appends continue where the rewrite ended
+            if (channel != null) {
+                channel.close();
+            }
+            channel = out;
+            dirty = false;
+            size = written;
+            sizeAfterRewrite = written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the log has grown enough since the last rewrite to be worth compacting.
+     */
+    boolean needsCompaction() {
+        lock.lock();
+        try {
+            return channel != null && size >= Math.max(compactBytes, 2 * sizeAfterRewrite);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void reserved(Reservation r) {
+        append(reserveRecord(r));
+    }
+
+    void confirmed(String id) {
+        append("C" + SEP + id + '\n');
+    }
+
+    void released(String id) {
+        append("X" + SEP + id + '\n');
+    }
+
+    void expired(String id) {
+        append("E" + SEP + id + '\n');
+    }
+
+    void flushed(String id) {
+        append("F" + SEP + id + '\n');
+    }
+
+    void sync() {
+        lock.lock();
+        try {
+            if (!dirty || channel == null) {
+                return;
+            }
+            channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            log.error("Could not sync reservation log {}", path, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.force(true);
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(String record) {
+        lock.lock();
+        try {
+            size += write(channel, record);
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to reservation log " + path, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String reserveRecord(Reservation r) {
+        return "R" + SEP + r.getId() + SEP + r.getProductId() + SEP + r.getOwnerId() + SEP + r.getQuantity()
+                + SEP + r.getExpiresAtMillis() + '\n';
+    }
+
+    private static int write(FileChannel out, String record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return buffer.capacity();
+    }
+}
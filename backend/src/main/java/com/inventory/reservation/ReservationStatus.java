@@ -0,0 +1,8 @@
+package com.inventory.reservation;
+
+public enum ReservationStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
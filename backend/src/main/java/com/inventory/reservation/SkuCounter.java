@@ -0,0 +1,79 @@
+package com.inventory.reservation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory stock counter for one product.
+ *
+ * {@code available} is what can still be reserved. {@code held} counts units
+ * under open holds and {@code pendingFlush} counts confirmed units that have
+ * not been written back to the product table yet. Reservations are a CAS loop
+ * on {@code available}, so hot products never take a lock.
+ */
+class SkuCounter {
+
+    final Long productId;
+    final Long ownerId;
+    final AtomicInteger available = new AtomicInteger();
+    final AtomicInteger held = new AtomicInteger();
+    final AtomicInteger pendingFlush = new AtomicInteger();
+
+    // Known once the product row has been read; used to bump the catalog version
+    volatile Long shopId;
+
+    // Set when the product row was changed outside the engine
+    volatile boolean stale;
+
+    // Serializes reloads of a stale counter. A lock rather than a monitor, because the
+    // holder waits on JDBC and a monitor would pin a virtual thread to its carrier.
+    final ReentrantLock resyncLock = new ReentrantLock();
+
+    SkuCounter(Long productId, Long ownerId) {
+        this.productId = productId;
+        this.ownerId = ownerId;
+    }
+
+    /**
+     * Takes {@code quantity} units if that many are available.
+     * {@code held} is raised before {@code available} is lowered so a
+     * concurrent resync can only under-count, never oversell.
+     */
+    boolean tryReserve(int quantity) {
+        held.addAndGet(quantity);
+        while (true) {
+            int current = available.get();
+            if (current < quantity) {
+                held.addAndGet(-quantity);
+                return false;
+            }
+            if (available.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    void release(int quantity) {
+        available.addAndGet(quantity);
+        held.addAndGet(-quantity);
+    }
+
+    void confirm(int quantity) {
+        pendingFlush.addAndGet(quantity);
+        held.addAndGet(-quantity);
+    }
+
+    void flushed(int quantity) {
+        pendingFlush.addAndGet(-quantity);
+    }
+
+    /**
+     * Recomputes availability from the stock currently in the database.
+     * Callers hold {@link #resyncLock} unless the counter is not shared yet.
+     */
+    void resync(int databaseStock, Long shopId) {
+        this.shopId = shopId;
+        available.set(databaseStock - held.get() - pendingFlush.get());
+        stale = false;
+    }
+}
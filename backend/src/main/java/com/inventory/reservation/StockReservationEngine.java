@@ -0,0 +1,495 @@
+package com.inventory.reservation;
+
+import com.inventory.catalog.CatalogVersions;
+import com.inventory.catalog.ShopInventorySummaries;
+import com.inventory.dto.StockLevelResponse;
+import com.inventory.events.ShopEventHub;
+import com.inventory.exception.BadRequestException;
+import com.inventory.exception.ConflictException;
+import com.inventory.exception.ForbiddenException;
+import com.inventory.exception.NotFoundException;
+import com.inventory.journal.Mutation;
+import com.inventory.journal.MutationJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Time-limited stock holds (reserve, confirm, release) served from memory.
+ *
+ * Each product has a lock-free {@link SkuCounter}, so thousands of holds per
+ * second on one hot product never wait on a database row lock. Holds expire
+ * through a {@link HierarchicalTimingWheel} driven by a single ticker thread.
+ * Confirmed units are written back to the product table in batches
+ * (write-behind). Every state change is appended to a {@link ReservationLog}
+ * first, so open holds and unflushed confirmations survive a restart; the log
+ * is compacted down to the open holds once it has grown large.
+ */
+@Component
+@DependsOn("entityManagerFactory") // recovery reads tables created by the JPA schema setup
+@Slf4j
+public class StockReservationEngine {
+
+    private static final String LOAD_SQL = "SELECT p.stock, s.owner_id, p.shop_id FROM product p "
+            + "JOIN shop s ON s.id = p.shop_id WHERE p.id = ?";
+    // Returns only the reservations not applied before, so a batch retried after a
+    // commit that failed with an unknown outcome is not decremented twice
+    private static final String MARK_APPLIED_SQL = "INSERT INTO stock_reservation_applied "
+            + "(reservation_id, product_id, quantity, applied_at) "
+            + "SELECT r.id, r.product_id, r.quantity, ? "
+            + "FROM unnest(?::varchar[], ?::bigint[], ?::int[]) AS r(id, product_id, quantity) "
+            + "ON CONFLICT (reservation_id) DO NOTHING RETURNING reservation_id";
+    // One statement for the whole batch. Rows are locked in id order first, so the
+    // stock before the decrement is known: the new level goes to event subscribers
+    // and a negative unclamped value reveals an oversell.
+    private static final String DECREMENT_SQL = "WITH locked AS (SELECT p.id, p.stock - d.quantity AS unclamped "
+            + "FROM product p JOIN unnest(?::bigint[], ?::int[]) AS d(id, quantity) ON d.id = p.id "
+            + "ORDER BY p.id FOR UPDATE OF p) "
+            + "UPDATE product p SET stock = GREATEST(l.unclamped, 0) FROM locked l WHERE p.id = l.id "
+            + "RETURNING p.id, p.shop_id, p.stock, l.unclamped";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReservationLog reservationLog;
+    private final CatalogVersions catalogVersions;
+    private final ShopInventorySummaries inventorySummaries;
+    private final ShopEventHub shopEvents;
+    private final MutationJournal journal;
+    private final Counter oversold;
+
+    private final ConcurrentHashMap<Long, SkuCounter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Queue<Reservation> unscheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Reservation> unflushed = new ConcurrentLinkedQueue<>();
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long flushIntervalMs;
+    private final long defaultTtlMs;
+    private final long maxTtlMs;
+
+    private HierarchicalTimingWheel<Reservation> wheel;
+    private ScheduledExecutorService ticker;
+
+    public StockReservationEngine(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            CatalogVersions catalogVersions, ShopInventorySummaries inventorySummaries, ShopEventHub shopEvents,
+            MutationJournal journal, MeterRegistry meterRegistry,
+            @Value("${app.reservations.log-path:./data/reservations.log}") String logPath,
+            @Value("${app.reservations.log-compact-bytes:16777216}") long logCompactBytes,
+            @Value("${app.reservations.tick-ms:100}") long tickMs,
+            @Value("${app.reservations.wheel-size:64}") int wheelSize,
+            @Value("${app.reservations.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${app.reservations.default-ttl-seconds:600}") long defaultTtlSeconds,
+            @Value("${app.reservations.max-ttl-seconds:3600}") long maxTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservationLog = new ReservationLog(Path.of(logPath), logCompactBytes);
+        this.catalogVersions = catalogVersions;
+        this.inventorySummaries = inventorySummaries;
+        this.shopEvents = shopEvents;
+        this.journal = journal;
+        this.oversold = Counter.builder("reservations.flush.oversold")
+                .description("Flushed products whose confirmed units exceeded the stock in the table")
+                .register(meterRegistry);
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.defaultTtlMs = TimeUnit.SECONDS.toMillis(defaultTtlSeconds);
+        this.maxTtlMs = TimeUnit.SECONDS.toMillis(maxTtlSeconds);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        long now = System.currentTimeMillis();
+        wheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, now);
+        recover(now);
+
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "stock-reservations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tickSafely, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        ticker.shutdown();
+        ticker.awaitTermination(5, TimeUnit.SECONDS);
+        flushSafely();
+        reservationLog.close();
+    }
+
+    /**
+     * Places a hold on {@code quantity} units.
+     *
+     * @param ttlSeconds hold lifetime, or null for the configured default
+     * @throws BadRequestException if the quantity or TTL is out of range
+     * @throws NotFoundException   if the product does not exist
+     * @throws ForbiddenException  if the product is not in one of the owner's shops
+     * @throws ConflictException   if not enough stock is available
+     */
+    public Reservation reserve(Long productId, Long ownerId, int quantity, Long ttlSeconds) {
+        long ttlMs = ttlSeconds != null ? TimeUnit.SECONDS.toMillis(ttlSeconds) : defaultTtlMs;
+        if (quantity < 1 || ttlMs < 1 || ttlMs > maxTtlMs) {
+            throw new BadRequestException("Quantity must be positive and TTL within 1.." + maxTtlMs / 1000 + " seconds");
+        }
+
+        SkuCounter counter = counterFor(productId);
+        if (!counter.ownerId.equals(ownerId)) {
+            throw new ForbiddenException("You don't have permission to reserve this product");
+        }
+        if (!counter.tryReserve(quantity)) {
+            throw new ConflictException("Insufficient stock for product " + productId);
+        }
+
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), productId, ownerId, quantity,
+                System.currentTimeMillis() + ttlMs, ReservationStatus.HELD);
+        reservations.put(reservation.getId(), reservation);
+        reservationLog.reserved(reservation);
+        unscheduled.add(reservation);
+        return reservation;
+    }
+
+    /**
+     * Turns a hold into a sale. The stock decrement reaches the product table
+     * on the next write-behind flush.
+     */
+    public Reservation confirm(String reservationId, Long ownerId) {
+        Reservation reservation = find(reservationId, ownerId);
+        if (!reservation.transition(ReservationStatus.HELD, ReservationStatus.CONFIRMED)) {
+            throw new ConflictException("Reservation is already " + reservation.getStatus());
+        }
+        reservationLog.confirmed(reservationId);
+        withCounter(reservation.getProductId(), c -> c.confirm(reservation.getQuantity()));
+        unflushed.add(reservation);
+        return reservation;
+    }
+
+    /**
+     * Cancels a hold and returns its units to the available stock.
+     */
+    public Reservation release(String reservationId, Long ownerId) {
+        Reservation reservation = find(reservationId, ownerId);
+        if (!reservation.transition(ReservationStatus.HELD, ReservationStatus.RELEASED)) {
+            throw new ConflictException("Reservation is already " + reservation.getStatus());
+        }
+        reservationLog.released(reservationId);
+        withCounter(reservation.getProductId(), c -> c.release(reservation.getQuantity()));
+        reservations.remove(reservationId);
+        return reservation;
+    }
+
+    public Reservation find(String reservationId, Long ownerId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new NotFoundException("Reservation not found with id: " + reservationId);
+        }
+        if (!reservation.getOwnerId().equals(ownerId)) {
+            throw new ForbiddenException("You don't have permission to access this reservation");
+        }
+        return reservation;
+    }
+
+    /**
+     * Marks a product's counter for reload after its stock was changed outside
+     * the engine (product update, stock adjustment, import or delete).
+     */
+    public void invalidate(Long productId) {
+        SkuCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.stale = true;
+        }
+    }
+
+    private SkuCounter counterFor(Long productId) {
+        SkuCounter counter = counters.get(productId);
+        if (counter == null) {
+            // Loaded outside computeIfAbsent: its mapping function runs under a bin
+            // monitor, which must not be held across a JDBC call. If two threads race,
+            // both read the row and the first counter published wins.
+            SkuCounter loaded = loadCounter(productId);
+            counter = counters.putIfAbsent(productId, loaded);
+            if (counter == null) {
+                counter = loaded;
+            }
+        }
+        if (counter.stale) {
+            counter.resyncLock.lock();
+            try {
+                if (counter.stale) {
+                    StockRow row = loadStock(productId);
+                    if (row == null) {
+                        counters.remove(productId, counter);
+                        throw new NotFoundException("Product not found with id: " + productId);
+                    }
+                    counter.resync(row.stock, row.shopId);
+                }
+            } finally {
+                counter.resyncLock.unlock();
+            }
+        }
+        return counter;
+    }
+
+    private SkuCounter loadCounter(Long productId) {
+        StockRow row = loadStock(productId);
+        if (row == null) {
+            throw new NotFoundException("Product not found with id: " + productId);
+        }
+        SkuCounter counter = new SkuCounter(productId, row.ownerId);
+        counter.resync(row.stock, row.shopId);
+        return counter;
+    }
+
+    private StockRow loadStock(Long productId) {
+        List<StockRow> rows = jdbcTemplate.query(LOAD_SQL,
+                (rs, i) -> new StockRow(rs.getInt(1), rs.getLong(2), rs.getLong(3)), productId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void withCounter(Long productId, Consumer<SkuCounter> action) {
+        // The counter is gone only if its product was deleted meanwhile
+        SkuCounter counter = counters.get(productId);
+        if (counter != null) {
+            action.accept(counter);
+        }
+    }
+
+    private void tickSafely() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("Reservation tick failed", e);
+        }
+    }
+
+    private void tick(long now) {
+        Reservation pending;
+        while ((pending = unscheduled.poll()) != null) {
+            if (!wheel.add(pending, pending.getExpiresAtMillis())) {
+                expire(pending);
+            }
+        }
+        for (Reservation reservation : wheel.advanceTo(now)) {
+            expire(reservation);
+        }
+        reservationLog.sync();
+        if (reservationLog.needsCompaction()) {
+            compactLog();
+        }
+    }
+
+    /**
+     * Rewrites the log with just the open holds and unflushed confirmations.
+     * Runs on the ticker thread, which also runs flushes and expiries, so none
+     * of those is in progress meanwhile.
+     */
+    private void compactLog() {
+        try {
+            reservationLog.rewrite(() -> reservations.values().stream()
+                    .filter(r -> r.getStatus() == ReservationStatus.HELD
+                            || r.getStatus() == ReservationStatus.CONFIRMED)
+                    .toList());
+        } catch (IOException e) {
+            log.error("Could not compact the reservation log", e);
+        }
+    }
+
+    private void expire(Reservation reservation) {
+        // Confirmed or released holds stay in the wheel and are skipped here
+        if (reservation.transition(ReservationStatus.HELD, ReservationStatus.EXPIRED)) {
+            reservationLog.expired(reservation.getId());
+            withCounter(reservation.getProductId(), c -> c.release(reservation.getQuantity()));
+            reservations.remove(reservation.getId());
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Reservation flush failed", e);
+        }
+    }
+
+    /**
+     * Writes confirmed decrements to the product table in one transaction,
+     * summed per product, together with the applied markers used by recovery.
+     * On any failure the batch is queued again; the markers keep a retry from
+     * applying a reservation twice.
+     */
+    private void flush() {
+        List<Reservation> batch = new ArrayList<>();
+        Reservation next;
+        while ((next = unflushed.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        String[] ids = new String[batch.size()];
+        Long[] reservedProductIds = new Long[batch.size()];
+        Integer[] reservedQuantities = new Integer[batch.size()];
+        Map<Long, Integer> confirmed = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Reservation r = batch.get(i);
+            ids[i] = r.getId();
+            reservedProductIds[i] = r.getProductId();
+            reservedQuantities[i] = r.getQuantity();
+            confirmed.merge(r.getProductId(), r.getQuantity(), Integer::sum);
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        Map<Long, Integer> oversoldUnits = new HashMap<>();
+        List<StockLevelResponse> levels;
+        try {
+            levels = transactionTemplate.execute(status -> {
+                Map<Long, Integer> decrements = new HashMap<>();
+                Set<String> newlyApplied = Set.copyOf(jdbcTemplate.queryForList(MARK_APPLIED_SQL, String.class,
+                        now, ids, reservedProductIds, reservedQuantities));
+                for (Reservation r : batch) {
+                    if (newlyApplied.contains(r.getId())) {
+                        decrements.merge(r.getProductId(), r.getQuantity(), Integer::sum);
+                    }
+                }
+                if (decrements.isEmpty()) {
+                    return List.of();
+                }
+                Long[] productIds = decrements.keySet().toArray(new Long[0]);
+                Integer[] quantities = new Integer[productIds.length];
+                for (int i = 0; i < productIds.length; i++) {
+                    quantities[i] = decrements.get(productIds[i]);
+                }
+
+                List<StockLevelResponse> updated = new ArrayList<>(productIds.length);
+                List<Mutation> mutations = new ArrayList<>(productIds.length);
+                jdbcTemplate.query(DECREMENT_SQL, rs -> {
+                    StockLevelResponse level = new StockLevelResponse(rs.getLong(1), rs.getLong(2), rs.getInt(3));
+                    int unclamped = rs.getInt(4);
+                    int requested = decrements.get(level.getProductId());
+                    // What the row actually moved by, which is less than requested when clamped
+                    int delta = level.getStock() - (unclamped + requested);
+                    if (unclamped < 0) {
+                        oversoldUnits.put(level.getProductId(), -unclamped);
+                    }
+                    updated.add(level);
+                    mutations.add(Mutation.stockAdjusted(level, delta));
+                }, productIds, quantities);
+                inventorySummaries.stocksChanged(updated);
+                journal.recordAll(mutations);
+                return updated;
+            });
+        } catch (RuntimeException e) {
+            // Includes failures to begin or commit the transaction, which are not DataAccessExceptions
+            log.warn("Could not flush {} confirmed reservations, will retry", batch.size(), e);
+            unflushed.addAll(batch);
+            return;
+        }
+
+        for (Reservation r : batch) {
+            reservationLog.flushed(r.getId());
+            reservations.remove(r.getId());
+        }
+        confirmed.forEach((productId, quantity) -> withCounter(productId, c -> c.flushed(quantity)));
+        oversoldUnits.forEach((productId, units) -> {
+            // The table had less stock than the counter assumed
+            oversold.increment();
+            log.warn("Product {} was oversold by {} units: its stock was lowered outside the reservation "
+                    + "engine, and the flush clamped it at 0", productId, units);
+            invalidate(productId);
+        });
+        levels.forEach(level -> catalogVersions.catalogChanged(level.getShopId()));
+        levels.forEach(shopEvents::stockChanged);
+    }
+
+    /**
+     * Rebuilds open holds and unflushed confirmations from the log, then
+     * compacts the log down to just those.
+     */
+    private void recover(long now) throws IOException {
+        Map<String, Reservation> open = reservationLog.replay();
+
+        Set<String> alreadyApplied = Set.of();
+        List<String> confirmedIds = open.values().stream()
+                .filter(r -> r.getStatus() == ReservationStatus.CONFIRMED)
+                .map(Reservation::getId)
+                .toList();
+        if (!confirmedIds.isEmpty()) {
+            alreadyApplied = Set.copyOf(jdbcTemplate.queryForList(
+                    "SELECT reservation_id FROM stock_reservation_applied WHERE reservation_id = ANY (?)",
+                    String.class, (Object) confirmedIds.toArray(new String[0])));
+        }
+
+        List<Reservation> kept = new ArrayList<>();
+        for (Reservation r : open.values()) {
+            boolean confirmed = r.getStatus() == ReservationStatus.CONFIRMED;
+            if (confirmed ? alreadyApplied.contains(r.getId()) : r.getExpiresAtMillis() <= now) {
+                continue;
+            }
+            kept.add(r);
+            SkuCounter counter = counters.computeIfAbsent(r.getProductId(),
+                    id -> new SkuCounter(id, r.getOwnerId()));
+            counter.stale = true;
+            if (confirmed) {
+                counter.pendingFlush.addAndGet(r.getQuantity());
+                unflushed.add(r);
+            } else {
+                counter.held.addAndGet(r.getQuantity());
+                unscheduled.add(r);
+            }
+            reservations.put(r.getId(), r);
+        }
+
+        reservationLog.rewrite(() -> kept);
+        try {
+            jdbcTemplate.update(
+                    "DELETE FROM stock_reservation_applied WHERE applied_at < now() - interval '1 day'");
+        } catch (DataAccessException e) {
+            log.warn("Could not prune applied reservation markers", e);
+        }
+        if (!kept.isEmpty()) {
+            log.info("Recovered {} open stock reservations from the log", kept.size());
+        }
+    }
+
+    private static final class StockRow {
+        private final int stock;
+        private final Long ownerId;
+        private final Long shopId;
+
+        private StockRow(int stock, Long ownerId, Long shopId) {
+            this.stock = stock;
+            this.ownerId = ownerId;
+            this.shopId = shopId;
+        }
+    }
+}
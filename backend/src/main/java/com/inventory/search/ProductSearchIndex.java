@@ -0,0 +1,214 @@
+package com.inventory.search;
+
+import com.inventory.dto.ProductResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, description and category,
+ * ranked with BM25.
+ *
+ * The index is kept current by ProductService after each committed write, so
+ * search never has to scan the product table. Terms in the name count more
+ * than terms in the category, which count more than the description.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (productId -> weighted term frequency)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Adds a product, or re-indexes it if it is already present.
+     */
+    public void index(ProductResponse product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, product.getName(), NAME_WEIGHT);
+        addTerms(frequencies, product.getCategory(), CATEGORY_WEIGHT);
+        addTerms(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        int length = 0;
+        for (int tf : frequencies.values()) {
+            length += tf;
+        }
+        IndexedProduct doc = new IndexedProduct(product.getShopId(), normalizeCategory(product.getCategory()),
+                length, frequencies.keySet().toArray(new String[0]));
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.getId());
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(product.getId(), entry.getValue());
+            }
+            documents.put(product.getId(), doc);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes several products under one lock, such as those of a deleted shop.
+     */
+    public void removeAll(Collection<Long> productIds) {
+        lock.writeLock().lock();
+        try {
+            productIds.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best matching products for the query, highest score first.
+     *
+     * @param query    free text; products matching any term are candidates
+     * @param category optional exact category filter (case-insensitive)
+     * @param shopId   optional shop filter
+     * @param limit    maximum number of hits
+     */
+    public List<SearchHit> search(String query, String category, Long shopId, int limit) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String categoryFilter = normalizeCategory(category);
+
+        Map<Long, double[]> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+            double avgLength = (double) totalLength / docCount;
+
+            for (String term : terms) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int df = termPostings.size();
+                double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+                for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+                    IndexedProduct doc = documents.get(posting.getKey());
+                    if (!doc.matches(categoryFilter, shopId)) {
+                        continue;
+                    }
+                    int tf = posting.getValue();
+                    double norm = K1 * (1 - B + B * doc.length / avgLength);
+                    double termScore = idf * tf * (K1 + 1) / (tf + norm);
+                    scores.computeIfAbsent(posting.getKey(), id -> new double[1])[0] += termScore;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Min-heap of the best `limit` hits
+        PriorityQueue<SearchHit> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(SearchHit::getScore));
+        for (Map.Entry<Long, double[]> entry : scores.entrySet()) {
+            double score = entry.getValue()[0];
+            if (top.size() < limit) {
+                top.add(new SearchHit(entry.getKey(), score));
+            } else if (score > top.peek().getScore()) {
+                top.poll();
+                top.add(new SearchHit(entry.getKey(), score));
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(top);
+        hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed());
+        return hits;
+    }
+
+    private void removeLocked(Long productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length;
+        for (String term : previous.terms) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : Tokenizer.tokenize(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private static String normalizeCategory(String category) {
+        if (category == null || category.isBlank()) {
+            return null;
+        }
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class IndexedProduct {
+        private final Long shopId;
+        private final String category;
+        private final int length;
+        private final String[] terms;
+
+        private IndexedProduct(Long shopId, String category, int length, String[] terms) {
+            this.shopId = shopId;
+            this.category = category;
+            this.length = length;
+            this.terms = terms;
+        }
+
+        private boolean matches(String categoryFilter, Long shopFilter) {
+            if (categoryFilter != null && !categoryFilter.equals(category)) {
+                return false;
+            }
+            return shopFilter == null || shopFilter.equals(shopId);
+        }
+    }
+}
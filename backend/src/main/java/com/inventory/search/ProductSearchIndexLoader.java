@@ -0,0 +1,36 @@
+package com.inventory.search;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Builds the product search index from the database once the application has
+ * started. After that ProductService keeps it current on every write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndexLoader {
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.currentTimeMillis();
+        try (Stream<ProductResponse> products = productRepository.streamAllResponses()) {
+            products.forEach(productSearchIndex::index);
+        }
+        log.info("Indexed {} products for search in {} ms", productSearchIndex.size(),
+                System.currentTimeMillis() - start);
+    }
+}
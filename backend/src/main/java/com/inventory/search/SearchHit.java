@@ -0,0 +1,14 @@
+package com.inventory.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A product matched by the search index and its BM25 score.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+    private final Long productId;
+    private final double score;
+}
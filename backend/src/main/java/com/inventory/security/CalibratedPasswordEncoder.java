@@ -0,0 +1,175 @@
+package com.inventory.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Password encoder whose work factor is picked by timing this host at startup.
+ *
+ * New hashes are written as {@code {bcrypt}...} or {@code {argon2}...} so both
+ * algorithms can be verified side by side; hashes without a prefix (written
+ * before this encoder existed) are read as BCrypt. {@link #upgradeEncoding}
+ * reports hashes of another algorithm and hashes weaker than the current
+ * parameters, so login can strengthen them. Stronger hashes are kept: the
+ * parameters depend on the speed of the host that timed them, and instances
+ * of different speeds sharing one database would otherwise re-hash each
+ * other's hashes back and forth, and could weaken them.
+ */
+@Slf4j
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final Pattern ARGON2_PARAMS = Pattern.compile("^\\$argon2id\\$v=\\d+\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$");
+
+    // Spring Security's Argon2 defaults for salt and hash length
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    private static final int SAMPLES = 3;
+
+    private final DelegatingPasswordEncoder delegate;
+    private final String algorithm;
+    // BCrypt: {cost}; Argon2: {memory KiB, iterations}
+    private final int[] parameters;
+
+    private CalibratedPasswordEncoder(String algorithm, PasswordEncoder encoder, int... parameters) {
+        this.algorithm = algorithm;
+        this.parameters = parameters;
+        BCryptPasswordEncoder legacy = algorithm.equals("bcrypt")
+                ? (BCryptPasswordEncoder) encoder
+                : new BCryptPasswordEncoder();
+        Map<String, PasswordEncoder> encoders = algorithm.equals("bcrypt")
+                ? Map.of("bcrypt", encoder)
+                : Map.of("bcrypt", legacy, "argon2", encoder);
+        this.delegate = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        this.delegate.setDefaultPasswordEncoderForMatches(legacy);
+    }
+
+    /**
+     * Builds an encoder for the given algorithm, timing this host to find the
+     * strongest parameters whose hash time stays within the budget.
+     *
+     * @param algorithm       "bcrypt" or "argon2"
+     * @param targetMillis    Hash time budget per password
+     * @param fixedBcryptCost Use this BCrypt cost instead of calibrating (0 to calibrate)
+     * @throws IllegalArgumentException if the algorithm is unknown
+     */
+    public static CalibratedPasswordEncoder create(String algorithm, long targetMillis, int fixedBcryptCost,
+            int minBcryptCost, int maxBcryptCost, int argon2MemoryKib, int argon2Parallelism,
+            int maxArgon2Iterations) {
+        switch (algorithm) {
+            case "bcrypt": {
+                int cost = fixedBcryptCost > 0
+                        ? fixedBcryptCost
+                        : calibrateBcrypt(targetMillis, minBcryptCost, maxBcryptCost);
+                log.info("Password hashing: bcrypt cost {} (target {} ms)", cost, targetMillis);
+                return new CalibratedPasswordEncoder("bcrypt", new BCryptPasswordEncoder(cost), cost);
+            }
+            case "argon2": {
+                int iterations = calibrateArgon2(targetMillis, argon2MemoryKib, argon2Parallelism,
+                        maxArgon2Iterations);
+                log.info("Password hashing: argon2id m={} t={} p={} (target {} ms)",
+                        argon2MemoryKib, iterations, argon2Parallelism, targetMillis);
+                return new CalibratedPasswordEncoder("argon2",
+                        new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, argon2Parallelism,
+                                argon2MemoryKib, iterations),
+                        argon2MemoryKib, iterations);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown password hashing algorithm: " + algorithm);
+        }
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        String prefix = "{" + algorithm + "}";
+        if (!encodedPassword.startsWith(prefix)) {
+            return true;
+        }
+        int[] stored = parametersOf(encodedPassword.substring(prefix.length()));
+        if (stored == null) {
+            return true;
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            if (stored[i] < parameters[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the hash's parameters in the order of {@link #parameters}, or null if unreadable
+     */
+    private int[] parametersOf(String hash) {
+        if (algorithm.equals("bcrypt")) {
+            Matcher m = BCRYPT_COST.matcher(hash);
+            return m.find() ? new int[] { Integer.parseInt(m.group(1)) } : null;
+        }
+        Matcher m = ARGON2_PARAMS.matcher(hash);
+        return m.find() ? new int[] { Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)) } : null;
+    }
+
+    /**
+     * Each BCrypt cost step doubles the work, so the cost is raised while the
+     * measured time at the next step would still fit the budget.
+     */
+    private static int calibrateBcrypt(long targetMillis, int minCost, int maxCost) {
+        int cost = minCost;
+        long millis = medianMillis(new BCryptPasswordEncoder(cost));
+        while (cost < maxCost && millis * 2 <= targetMillis) {
+            cost++;
+            millis = medianMillis(new BCryptPasswordEncoder(cost));
+        }
+        return cost;
+    }
+
+    /**
+     * Memory and parallelism are fixed by configuration; only the number of
+     * passes is tuned, starting from the recommended minimum of two.
+     */
+    private static int calibrateArgon2(long targetMillis, int memoryKib, int parallelism, int maxIterations) {
+        int iterations = 2;
+        long perIteration = medianMillis(new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                parallelism, memoryKib, iterations)) / iterations;
+        while (iterations < maxIterations && perIteration * (iterations + 1) <= targetMillis) {
+            iterations++;
+        }
+        return iterations;
+    }
+
+    private static long medianMillis(PasswordEncoder encoder) {
+        // One warm-up run so class loading and JIT don't skew the first sample
+        encoder.encode("calibration-warm-up");
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-sample-" + i);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,7 +14,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -21,50 +24,49 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    // Only a handful of roles exist, so authority lists are built once per role
+    private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        logger.info("=== JWT Authentication Filter ===");
-        logger.info("Request URI: " + request.getRequestURI());
-        logger.info("Auth Header present: " + (authHeader != null));
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            logger.info("Token extracted: " + token.substring(0, Math.min(20, token.length())) + "...");
 
             try {
-                var claims = jwtUtil.extractClaims(token);
-                // userId is stored as Integer/Long in the JWT, not String
-                Integer userIdInt = claims.get("userId", Integer.class);
-                String role = claims.get("role", String.class);
-
-                logger.info("Claims extracted - userId: " + userIdInt + ", role: " + role);
+                JwtPrincipal principal = jwtUtil.verify(token);
 
-                if (userIdInt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    String userId = String.valueOf(userIdInt);
+                if (principal.getUserId() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userId,
+                            principal,
                             token,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                            authoritiesFor(principal.getRole()));
+                    authToken.setDetails(detailsSource.buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.info(
-                            "Authentication set successfully! Principal: " + userId + ", Authorities: ROLE_" + role);
-                } else {
-                    logger.warn("Authentication not set. UserIdInt: " + userIdInt + ", Existing auth: "
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Authenticated user " + principal.getUserId() + " with role "
+                                + principal.getRole() + " for " + request.getRequestURI());
+                    }
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("Authentication not set. UserId: " + principal.getUserId() + ", Existing auth: "
                             + SecurityContextHolder.getContext().getAuthentication());
                 }
             } catch (Exception e) {
                 // Invalid token, continue without authentication
                 logger.warn("JWT validation failed: " + e.getMessage());
-                e.printStackTrace();
             }
-        } else {
-            logger.info("No Bearer token found in request");
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private List<GrantedAuthority> authoritiesFor(String role) {
+        return authoritiesByRole.computeIfAbsent(String.valueOf(role),
+                r -> List.of(new SimpleGrantedAuthority("ROLE_" + r)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.inventory.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+
+/**
+ * Authenticated caller resolved from a verified JWT.
+ * Set as the principal of the Spring Security authentication so controllers
+ * can read the user ID and role without parsing the token again.
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal implements Principal {
+
+    private final Long userId;
+    private final String role;
+
+    /**
+     * Token expiry in epoch milliseconds, used to evict cached verifications.
+     */
+    private final long expiresAtMillis;
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
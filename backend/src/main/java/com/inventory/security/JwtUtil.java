@@ -1,6 +1,8 @@
 package com.inventory.security;
 
+import com.inventory.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,41 +11,92 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Date;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final SecretKey signingKey;
+    private final Long expiration;
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    // JwtParser is immutable and thread-safe once built, so one instance is shared
+    private final JwtParser parser;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private final VerifiedTokenCache tokenCache;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration}") Long expiration,
+            @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.expiration = expiration;
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.tokenCache = new VerifiedTokenCache(cacheMaxEntries);
+    }
+
+    public String generateToken(User user) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .subject(user.getUsername())
+                .claim("userId", user.getId())
+                .claim("role", user.getRole())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
+                .compact();
     }
 
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Verifies the token and returns the caller it identifies.
+     * A token is only parsed and signature-checked the first time it is seen;
+     * later requests with the same token are served from the verified-token cache
+     * until the token expires.
+     *
+     * @param token raw compact JWT
+     * @return the verified principal
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public JwtPrincipal verify(String token) {
+        long now = System.currentTimeMillis();
+        JwtPrincipal cached = tokenCache.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = extractClaims(token);
+        // userId is stored as Integer or Long in the JWT depending on its size
+        Object userIdClaim = claims.get("userId");
+        Long userId = userIdClaim instanceof Number ? ((Number) userIdClaim).longValue() : null;
+        String role = claims.get("role", String.class);
+        Date exp = claims.getExpiration();
+        long expiresAt = exp != null ? exp.getTime() : now;
+
+        JwtPrincipal principal = new JwtPrincipal(userId, role, expiresAt);
+        if (userId != null) {
+            tokenCache.put(token, principal, now);
+        }
+        return principal;
     }
 
     public Long extractUserId(Authentication authentication) {
-        if (authentication == null || authentication.getCredentials() == null) {
+        if (authentication == null) {
             return null;
         }
 
-        // Extract from JWT token in credentials
-        if (authentication.getCredentials() instanceof String) {
-            String token = (String) authentication.getCredentials();
+        // Set by JwtAuthenticationFilter; the token has already been verified
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.getUserId();
+        }
+
+        // Fallback: extract from JWT token in credentials
+        if (authentication.getCredentials() instanceof String token) {
             try {
-                Claims claims = extractClaims(token);
-                // userId is stored as Integer in JWT, not Long
-                Integer userIdInt = claims.get("userId", Integer.class);
-                return userIdInt != null ? userIdInt.longValue() : null;
+                return verify(token).getUserId();
             } catch (Exception e) {
                 return null;
             }
@@ -57,6 +110,10 @@ public class JwtUtil {
             return null;
         }
 
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.getRole();
+        }
+
         // Extract role from authorities
         return authentication.getAuthorities().stream()
                 .findFirst()
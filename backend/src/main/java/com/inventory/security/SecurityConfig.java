@@ -1,5 +1,6 @@
 package com.inventory.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,7 +10,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -30,9 +30,22 @@ public class SecurityConfig {
     @Value("${cors.allowed-origins:http://localhost:3000}")
     private String[] allowedOrigins;
 
+    /**
+     * Password encoder tuned to this host: the work factor is measured at
+     * startup to fit app.password-hashing.target-ms.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.password-hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${app.password-hashing.target-ms:250}") long targetMillis,
+            @Value("${app.password-hashing.bcrypt.cost:0}") int fixedBcryptCost,
+            @Value("${app.password-hashing.bcrypt.min-cost:10}") int minBcryptCost,
+            @Value("${app.password-hashing.bcrypt.max-cost:15}") int maxBcryptCost,
+            @Value("${app.password-hashing.argon2.memory-kib:19456}") int argon2MemoryKib,
+            @Value("${app.password-hashing.argon2.parallelism:1}") int argon2Parallelism,
+            @Value("${app.password-hashing.argon2.max-iterations:10}") int maxArgon2Iterations) {
+        return CalibratedPasswordEncoder.create(algorithm, targetMillis, fixedBcryptCost, minBcryptCost,
+                maxBcryptCost, argon2MemoryKib, argon2Parallelism, maxArgon2Iterations);
     }
 
     @Bean
@@ -42,9 +55,16 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (event streams, exports) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+
                         // Public endpoints
                         .requestMatchers("/api/v1/auth/**").permitAll()
 
+                        // Health is public for load balancers; metrics are ADMIN only
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // User management endpoints (ADMIN only)
                         .requestMatchers("/api/v1/users/**").hasRole("ADMIN")
 
@@ -68,7 +88,7 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList(allowedOrigins));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
 
@@ -0,0 +1,177 @@
+package com.inventory.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory index of shop ownership: shopId to ownerId, plus the
+ * reverse ownerId to shopIds used to list an owner's shops.
+ *
+ * A shop's owner never changes and shop IDs are never reused, so entries only
+ * need to be dropped when a shop is deleted. Every create and delete bumps a
+ * stamp; a value loaded from the database is stored only if the stamp did not
+ * move while it was being read, so a load racing with a delete cannot
+ * resurrect the deleted shop and a listing cannot miss a new one.
+ */
+@Component
+public class ShopOwnershipCache {
+
+    private static final long[] NO_SHOPS = new long[0];
+
+    private final ConcurrentHashMap<Long, Long> ownerByShop = new ConcurrentHashMap<>();
+
+    // Present only when the full set of the owner's shops is known
+    private final ConcurrentHashMap<Long, long[]> shopsByOwner = new ConcurrentHashMap<>();
+
+    private final AtomicLong stamp = new AtomicLong();
+    private final int maxShops;
+    private final int maxOwners;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder ownerHits = new LongAdder();
+    private final LongAdder ownerMisses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ShopOwnershipCache(@Value("${app.ownership.cache.max-shops:100000}") int maxShops,
+            @Value("${app.ownership.cache.max-owners:10000}") int maxOwners,
+            MeterRegistry meterRegistry) {
+        this.maxShops = maxShops;
+        this.maxOwners = maxOwners;
+
+        requestCounter(meterRegistry, "shop", "hit", hits);
+        requestCounter(meterRegistry, "shop", "miss", misses);
+        requestCounter(meterRegistry, "owner", "hit", ownerHits);
+        requestCounter(meterRegistry, "owner", "miss", ownerMisses);
+        FunctionCounter.builder("shop.ownership.cache.evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("shop.ownership.cache.size", ownerByShop, ConcurrentHashMap::size)
+                .tag("index", "shop")
+                .register(meterRegistry);
+        Gauge.builder("shop.ownership.cache.size", shopsByOwner, ConcurrentHashMap::size)
+                .tag("index", "owner")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the owner of the shop, loading it on a miss.
+     *
+     * @param loader reads the owner from the database; returns null if the shop doesn't exist
+     * @return the owner ID, or null if the shop doesn't exist (absence is not cached)
+     */
+    public Long ownerOf(Long shopId, Function<Long, Long> loader) {
+        Long ownerId = ownerByShop.get(shopId);
+        if (ownerId != null) {
+            hits.increment();
+            return ownerId;
+        }
+        misses.increment();
+
+        long before = stamp.get();
+        ownerId = loader.apply(shopId);
+        if (ownerId != null && stamp.get() == before) {
+            putShop(shopId, ownerId);
+        }
+        return ownerId;
+    }
+
+    /**
+     * Returns the IDs of all shops of the owner, loading them on a miss.
+     *
+     * @param loader reads the owner's shop IDs from the database
+     */
+    public long[] shopsOf(Long ownerId, Supplier<long[]> loader) {
+        long[] shopIds = shopsByOwner.get(ownerId);
+        if (shopIds != null) {
+            ownerHits.increment();
+            return shopIds;
+        }
+        ownerMisses.increment();
+
+        long before = stamp.get();
+        shopIds = loader.get();
+        if (maxOwners > 0 && stamp.get() == before) {
+            if (shopsByOwner.size() >= maxOwners) {
+                evictSome(shopsByOwner, maxOwners);
+            }
+            shopsByOwner.put(ownerId, shopIds);
+            for (long shopId : shopIds) {
+                putShop(shopId, ownerId);
+            }
+        }
+        return shopIds;
+    }
+
+    /**
+     * Records a newly created shop. Call after the creating transaction commits.
+     */
+    public void shopCreated(Long shopId, Long ownerId) {
+        // Discards an owner listing that was read before the shop existed
+        stamp.incrementAndGet();
+        putShop(shopId, ownerId);
+        shopsByOwner.computeIfPresent(ownerId, (id, shopIds) -> {
+            long[] updated = Arrays.copyOf(shopIds, shopIds.length + 1);
+            updated[shopIds.length] = shopId;
+            return updated;
+        });
+    }
+
+    /**
+     * Forgets a deleted shop. Call after the deleting transaction commits.
+     */
+    public void shopRemoved(Long shopId, Long ownerId) {
+        stamp.incrementAndGet();
+        ownerByShop.remove(shopId);
+        shopsByOwner.computeIfPresent(ownerId, (id, shopIds) -> {
+            long[] remaining = Arrays.stream(shopIds).filter(s -> s != shopId).toArray();
+            return remaining.length == 0 ? NO_SHOPS : remaining;
+        });
+    }
+
+    public int size() {
+        return ownerByShop.size();
+    }
+
+    private void putShop(long shopId, Long ownerId) {
+        if (maxShops <= 0) {
+            return;
+        }
+        if (ownerByShop.size() >= maxShops) {
+            evictSome(ownerByShop, maxShops);
+        }
+        ownerByShop.put(shopId, ownerId);
+    }
+
+    /**
+     * Drops about a tenth of the entries. Iteration order of a
+     * ConcurrentHashMap follows hash buckets, so the victims are effectively
+     * arbitrary; a victim costs one primary-key read to load again.
+     */
+    private <V> void evictSome(ConcurrentHashMap<Long, V> map, int max) {
+        int target = max - Math.max(1, max / 10);
+        Iterator<Long> keys = map.keySet().iterator();
+        while (map.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private static void requestCounter(MeterRegistry registry, String index, String result, LongAdder adder) {
+        FunctionCounter.builder("shop.ownership.cache.requests", adder, LongAdder::sum)
+                .tag("index", index)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventory.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already verified tokens.
+ * Entries are keyed by the SHA-256 digest of the raw token (so raw tokens are
+ * never retained) and are dropped once the token expires.
+ */
+public class VerifiedTokenCache {
+
+    private static final MessageDigest SHA_256_PROTOTYPE;
+
+    static {
+        try {
+            SHA_256_PROTOTYPE = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private final ConcurrentHashMap<TokenDigest, JwtPrincipal> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached principal for the token, or null if it is unknown or
+     * has expired.
+     */
+    public JwtPrincipal get(String token, long nowMillis) {
+        TokenDigest key = digest(token);
+        JwtPrincipal principal = entries.get(key);
+        if (principal == null) {
+            return null;
+        }
+        if (principal.getExpiresAtMillis() <= nowMillis) {
+            entries.remove(key, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    public void put(String token, JwtPrincipal principal, long nowMillis) {
+        if (maxEntries <= 0 || principal.getExpiresAtMillis() <= nowMillis) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired(nowMillis);
+            if (entries.size() >= maxEntries) {
+                // Still full of live tokens: skip caching rather than grow unbounded
+                return;
+            }
+        }
+        entries.put(digest(token), principal);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long nowMillis) {
+        entries.values().removeIf(p -> p.getExpiresAtMillis() <= nowMillis);
+    }
+
+    private static TokenDigest digest(String token) {
+        MessageDigest md;
+        try {
+            md = (MessageDigest) SHA_256_PROTOTYPE.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest is not cloneable", e);
+        }
+        return new TokenDigest(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static final class TokenDigest {
+        private final byte[] bytes;
+        private final int hash;
+
+        private TokenDigest(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TokenDigest other && Arrays.equals(bytes, other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -3,58 +3,76 @@ package com.inventory.service;
 import com.inventory.dto.LoginRequest;
 import com.inventory.dto.LoginResponse;
 import com.inventory.entity.User;
+import com.inventory.exception.ServiceUnavailableException;
 import com.inventory.exception.UnauthorizedException;
 import com.inventory.repository.UserRepository;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.inventory.security.JwtUtil;
+import com.inventory.security.PasswordHashingPool;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final PasswordHashingPool passwordHashingPool;
     private final PasswordEncoder passwordEncoder;
+    private final JwtUtil jwtUtil;
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
-    private Long expiration;
-
-    public LoginResponse login(LoginRequest request) {
+    /**
+     * Authenticates a user and issues a JWT.
+     * The BCrypt check runs on the password hashing pool, so the request
+     * thread is released while it runs. If the stored hash is weaker than
+     * the current parameters, it is re-hashed in the background after a
+     * successful check.
+     *
+     * @return completes with the token, or with UnauthorizedException if the
+     *         credentials are wrong
+     * @throws com.inventory.exception.ServiceUnavailableException if the hashing pool is saturated
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
         // Find user by username
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new UnauthorizedException("Invalid username or password"));
 
-        // Check password using BCrypt
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new UnauthorizedException("Invalid username or password");
-        }
+        // Check the password on the hashing pool
+        return passwordHashingPool.matches(request.getPassword(), user.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new UnauthorizedException("Invalid username or password");
+                    }
 
-        // Generate JWT token
-        String token = generateToken(user);
+                    if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                        rehash(user, request.getPassword());
+                    }
 
-        return new LoginResponse(token, user.getRole(), user.getId(), user.getUsername());
+                    // Generate JWT token
+                    String token = jwtUtil.generateToken(user);
+
+                    return new LoginResponse(token, user.getRole(), user.getId(), user.getUsername());
+                });
     }
 
-    private String generateToken(User user) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        
-        return Jwts.builder()
-                .subject(user.getUsername())
-                .claim("userId", user.getId())
-                .claim("role", user.getRole())
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(key)
-                .compact();
+    /**
+     * Stores a hash with the current parameters. Best effort: if the hashing
+     * pool is busy the upgrade is simply retried on a later login.
+     */
+    private void rehash(User user, String rawPassword) {
+        try {
+            passwordHashingPool.encodeAsync(rawPassword)
+                    .thenAccept(newHash -> userRepository.replacePasswordHash(user.getId(), user.getPassword(), newHash))
+                    .exceptionally(e -> {
+                        log.warn("Could not re-hash password of user {}: {}", user.getId(), e.getMessage());
+                        return null;
+                    });
+        } catch (ServiceUnavailableException e) {
+            log.debug("Skipping password re-hash of user {}: hashing pool is busy", user.getId());
+        }
     }
-}
\ No newline at end of file
+}
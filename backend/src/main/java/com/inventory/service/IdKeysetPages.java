@@ -0,0 +1,45 @@
+package com.inventory.service;
+
+import com.inventory.dto.PageResponse;
+import com.inventory.exception.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over primary keys for the admin listings.
+ * The cursor is the id of the last row served, so each page is a primary-key
+ * range scan no matter how deep the client has paged.
+ */
+final class IdKeysetPages {
+
+    private IdKeysetPages() {
+    }
+
+    static <T> PageResponse<T> fetch(String cursor, Integer size, int defaultSize, int maxSize,
+            BiFunction<Long, Pageable, List<T>> query, Function<T, Long> idOf) {
+        int pageSize = size != null ? size : defaultSize;
+        if (pageSize < 1 || pageSize > maxSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxSize);
+        }
+
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        List<T> rows = query.apply(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? String.valueOf(idOf.apply(items.get(items.size() - 1))) : null;
+        return new PageResponse<>(items, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,182 @@
+package com.inventory.service;
+
+import com.inventory.catalog.CatalogVersions;
+import com.inventory.catalog.ShopInventorySummaries;
+import com.inventory.dto.ProductBatchUpdateRequest;
+import com.inventory.dto.ProductBatchUpdateResponse;
+import com.inventory.dto.ProductBatchUpdateResponse.ItemResult;
+import com.inventory.dto.ProductBatchUpdateResponse.Status;
+import com.inventory.dto.ProductResponse;
+import com.inventory.events.ShopEventHub;
+import com.inventory.exception.BadRequestException;
+import com.inventory.journal.Mutation;
+import com.inventory.journal.MutationJournal;
+import com.inventory.reservation.StockReservationEngine;
+import com.inventory.search.ProductSearchIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies sparse field changes (price, stock, category) to many products at once.
+ *
+ * The current rows of the whole set are read and locked with one query, which
+ * also yields each product's owner, so ownership is checked without a query
+ * per item. The changed rows are then written with one JDBC batch UPDATE in
+ * the same transaction. Items that are invalid, missing or owned by someone
+ * else are reported in the response and do not stop the others.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductBatchUpdateService {
+
+    // Ordered by id so concurrent batches lock rows in the same order and cannot deadlock
+    private static final String LOCK_SQL = "SELECT p.id, p.shop_id, s.owner_id, p.name, p.description, p.price, "
+            + "p.stock, p.category FROM product p JOIN shop s ON s.id = p.shop_id "
+            + "WHERE p.id = ANY (?) ORDER BY p.id FOR UPDATE OF p";
+
+    private static final String UPDATE_SQL = "UPDATE product SET price = ?, stock = ?, category = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ProductSearchIndex productSearchIndex;
+    private final StockReservationEngine reservationEngine;
+    private final CatalogVersions catalogVersions;
+    private final ShopInventorySummaries inventorySummaries;
+    private final ShopEventHub shopEvents;
+    private final MutationJournal journal;
+
+    @Value("${app.products.batch-update.max-items:5000}")
+    private int maxItems;
+
+    /**
+     * Updates the caller's products.
+     *
+     * @param request The per-product changes
+     * @param ownerId The ID of the user updating (must own each product's shop)
+     * @return one result per item, in request order
+     * @throws BadRequestException if there are no items or more than the configured maximum
+     */
+    @Transactional
+    public ProductBatchUpdateResponse updateProducts(ProductBatchUpdateRequest request, Long ownerId) {
+        List<ProductBatchUpdateRequest.Item> items = request.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("At least one item is required");
+        }
+        if (items.size() > maxItems) {
+            throw new BadRequestException("At most " + maxItems + " products can be updated at once");
+        }
+
+        ItemResult[] results = new ItemResult[items.size()];
+        Map<Long, Integer> indexById = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            ProductBatchUpdateRequest.Item item = items.get(i);
+            String problem = validate(item);
+            if (problem == null && indexById.putIfAbsent(item.getId(), i) != null) {
+                problem = "Duplicate product id";
+            }
+            if (problem != null) {
+                results[i] = new ItemResult(item != null ? item.getId() : null, Status.INVALID, problem, null);
+            }
+        }
+
+        Map<Long, CurrentRow> current = new HashMap<>();
+        if (!indexById.isEmpty()) {
+            jdbcTemplate.query(LOCK_SQL, rs -> {
+                current.put(rs.getLong(1), new CurrentRow(rs.getLong(3), new ProductResponse(rs.getLong(1),
+                        rs.getLong(2), rs.getString(4), rs.getString(5), rs.getBigDecimal(6), rs.getInt(7),
+                        rs.getString(8))));
+            }, (Object) indexById.keySet().toArray(new Long[0]));
+        }
+
+        List<Object[]> updates = new ArrayList<>(indexById.size());
+        List<ProductResponse> updated = new ArrayList<>(indexById.size());
+        indexById.forEach((id, index) -> {
+            CurrentRow row = current.get(id);
+            if (row == null) {
+                results[index] = new ItemResult(id, Status.NOT_FOUND, "Product not found with id: " + id, null);
+            } else if (!row.ownerId.equals(ownerId)) {
+                results[index] = new ItemResult(id, Status.FORBIDDEN,
+                        "You don't have permission to update this product", null);
+            } else {
+                ProductResponse product = apply(row.product, items.get(index));
+                updates.add(new Object[] { product.getPrice(), product.getStock(), product.getCategory(), id });
+                updated.add(product);
+                results[index] = new ItemResult(id, Status.UPDATED, null, product);
+            }
+        });
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            recordChanges(updated);
+        }
+        return new ProductBatchUpdateResponse(updated.size(), items.size() - updated.size(), List.of(results));
+    }
+
+    private String validate(ProductBatchUpdateRequest.Item item) {
+        if (item == null) {
+            return "Item cannot be null";
+        }
+        Set<ConstraintViolation<ProductBatchUpdateRequest.Item>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (item.getPrice() == null && item.getStock() == null && item.getCategory() == null) {
+            return "No fields to change";
+        }
+        return null;
+    }
+
+    private static ProductResponse apply(ProductResponse product, ProductBatchUpdateRequest.Item item) {
+        String category = product.getCategory();
+        if (item.getCategory() != null) {
+            category = item.getCategory().isEmpty() ? null : item.getCategory();
+        }
+        return new ProductResponse(product.getId(), product.getShopId(), product.getName(), product.getDescription(),
+                item.getPrice() != null ? item.getPrice() : product.getPrice(),
+                item.getStock() != null ? item.getStock() : product.getStock(),
+                category);
+    }
+
+    private void recordChanges(List<ProductResponse> updated) {
+        Map<Long, List<ProductResponse>> byShop = updated.stream()
+                .collect(Collectors.groupingBy(ProductResponse::getShopId));
+        byShop.forEach(inventorySummaries::productsSaved);
+        journal.recordAll(updated.stream().map(Mutation::productUpdated).toList());
+        Set<Long> shopIds = new HashSet<>(byShop.keySet());
+        TransactionHooks.afterCommit(() -> {
+            for (ProductResponse product : updated) {
+                productSearchIndex.index(product);
+                reservationEngine.invalidate(product.getId());
+            }
+            shopIds.forEach(catalogVersions::catalogChanged);
+            updated.forEach(shopEvents::productUpdated);
+        });
+    }
+
+    private static final class CurrentRow {
+        private final Long ownerId;
+        private final ProductResponse product;
+
+        private CurrentRow(Long ownerId, ProductResponse product) {
+            this.ownerId = ownerId;
+            this.product = product;
+        }
+    }
+}
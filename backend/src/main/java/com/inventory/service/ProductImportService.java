@@ -0,0 +1,320 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.catalog.CatalogVersions;
+import com.inventory.catalog.ShopInventorySummaries;
+import com.inventory.dto.ProductImportResponse;
+import com.inventory.dto.ProductImportResponse.RowError;
+import com.inventory.dto.ProductRequest;
+import com.inventory.dto.ProductResponse;
+import com.inventory.events.ShopEventHub;
+import com.inventory.exception.BadRequestException;
+import com.inventory.exception.ForbiddenException;
+import com.inventory.journal.Mutation;
+import com.inventory.journal.MutationJournal;
+import com.inventory.repository.IdBlocks;
+import com.inventory.search.ProductSearchIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON upload of products into a shop.
+ *
+ * Rows are parsed and validated one at a time, ownership is checked once, and
+ * valid rows are written with JDBC batch inserts. Each batch reserves its IDs
+ * from the product id sequence in one round-trip and commits on its own, so
+ * memory use stays flat and a failure late in a large file keeps the batches
+ * already written. A batch that a row makes the database reject is saved
+ * again row by row, so only that row is rejected and the import goes on.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO product (id, shop_id, name, description, price, stock, category) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShopService shopService;
+    private final ProductSearchIndex productSearchIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions catalogVersions;
+    private final ShopInventorySummaries inventorySummaries;
+    private final ShopEventHub shopEvents;
+    private final MutationJournal journal;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ShopService shopService, ProductSearchIndex productSearchIndex, Validator validator,
+            ObjectMapper objectMapper, CatalogVersions catalogVersions, ShopInventorySummaries inventorySummaries,
+            ShopEventHub shopEvents, MutationJournal journal) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shopService = shopService;
+        this.productSearchIndex = productSearchIndex;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.catalogVersions = catalogVersions;
+        this.inventorySummaries = inventorySummaries;
+        this.shopEvents = shopEvents;
+        this.journal = journal;
+    }
+
+    /**
+     * Imports products from the stream into the shop.
+     *
+     * @param shopId  The shop to import into
+     * @param input   CSV (with a header row) or NDJSON body
+     * @param format  Body format
+     * @param ownerId The ID of the user importing (must own the shop)
+     * @return counts of imported and rejected rows and the per-row errors
+     * @throws ForbiddenException  if the user does not own the shop
+     * @throws BadRequestException if the CSV header is missing required columns
+     */
+    public ProductImportResponse importProducts(Long shopId, InputStream input, Format format, Long ownerId) {
+        if (!shopService.isOwner(shopId, ownerId)) {
+            throw new ForbiddenException("You don't have permission to add products to this shop");
+        }
+
+        ImportRun run = new ImportRun(shopId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } catch (IOException e) {
+            // Keep what was read so far and report where the upload broke off
+            run.flushQuietly();
+            run.error(run.rowNumber + 1, "Could not read upload: " + e.getMessage());
+        } catch (DataAccessException e) {
+            log.warn("Product import into shop {} stopped at row {}", shopId, run.rowNumber, e);
+            run.error(run.firstPendingRow(), "Batch starting at this row was not saved: "
+                    + e.getMostSpecificCause().getMessage());
+            run.rejected += run.pending.size();
+        }
+        return new ProductImportResponse(run.imported, run.rejected, run.errors);
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price") || !columns.containsKey("stock")) {
+            throw new BadRequestException("CSV header must contain name, price and stock columns");
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            run.rowNumber++;
+            try {
+                ProductRequest request = new ProductRequest();
+                request.setName(column(record, columns, "name"));
+                request.setDescription(column(record, columns, "description"));
+                String price = column(record, columns, "price");
+                request.setPrice(price != null ? new BigDecimal(price.trim()) : null);
+                String stock = column(record, columns, "stock");
+                request.setStock(stock != null ? Integer.valueOf(stock.trim()) : null);
+                request.setCategory(column(record, columns, "category"));
+                run.accept(request);
+            } catch (NumberFormatException e) {
+                run.reject("Invalid number: " + e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            run.rowNumber++;
+            try {
+                run.accept(objectMapper.readValue(line, ProductRequest.class));
+            } catch (JsonProcessingException e) {
+                run.reject("Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * State of one import: the pending batch and the running counters.
+     */
+    private final class ImportRun {
+        private final Long shopId;
+        private final List<ProductRequest> pending = new ArrayList<>();
+        private final List<Long> pendingRows = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long rowNumber;
+        private long imported;
+        private long rejected;
+
+        private ImportRun(Long shopId) {
+            this.shopId = shopId;
+        }
+
+        void accept(ProductRequest request) {
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            pending.add(request);
+            pendingRows.add(rowNumber);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(String message) {
+            rejected++;
+            error(rowNumber, message);
+        }
+
+        void error(long row, String message) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(row, message));
+            }
+        }
+
+        long firstPendingRow() {
+            return pendingRows.isEmpty() ? rowNumber : pendingRows.get(0);
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            long importedBefore = imported;
+            try {
+                try {
+                    save(pending);
+                } catch (DataIntegrityViolationException e) {
+                    // A row passed validation but not the schema; find it by saving one row at a time
+                    saveOneByOne();
+                }
+                pending.clear();
+                pendingRows.clear();
+            } finally {
+                if (imported > importedBefore) {
+                    catalogVersions.catalogChanged(shopId);
+                    shopEvents.catalogReplaced(shopId);
+                }
+            }
+        }
+
+        private void saveOneByOne() {
+            int tried = 0;
+            try {
+                for (; tried < pending.size(); tried++) {
+                    try {
+                        save(List.of(pending.get(tried)));
+                    } catch (DataIntegrityViolationException e) {
+                        rejected++;
+                        error(pendingRows.get(tried), "Not saved: " + e.getMostSpecificCause().getMessage());
+                    }
+                }
+            } finally {
+                // If the database fails in some other way, only the rows not tried yet are left over
+                pending.subList(0, tried).clear();
+                pendingRows.subList(0, tried).clear();
+            }
+        }
+
+        private void save(List<ProductRequest> rows) {
+            List<ProductResponse> saved = transactionTemplate.execute(status -> insertBatch(shopId, rows));
+            imported += saved.size();
+            // The batch has committed, so it can be made searchable right away
+            saved.forEach(productSearchIndex::index);
+        }
+
+        void flushQuietly() {
+            try {
+                flush();
+            } catch (DataAccessException e) {
+                log.warn("Could not save final import batch for shop {}", shopId, e);
+                rejected += pending.size();
+                pending.clear();
+                pendingRows.clear();
+            }
+        }
+    }
+
+    private List<ProductResponse> insertBatch(Long shopId, List<ProductRequest> rows) {
+        // Reserves one ID per row, in whole sequence blocks, in one round-trip
+        long[] ids = IdBlocks.reserve(jdbcTemplate, "product", rows.size());
+
+        List<Object[]> args = new ArrayList<>(rows.size());
+        List<ProductResponse> saved = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ProductRequest row = rows.get(i);
+            Long id = ids[i];
+            args.add(new Object[] { id, shopId, row.getName(), row.getDescription(), row.getPrice(), row.getStock(),
+                    row.getCategory() });
+            saved.add(new ProductResponse(id, shopId, row.getName(), row.getDescription(), row.getPrice(),
+                    row.getStock(), row.getCategory()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+        inventorySummaries.productsCreated(shopId, saved);
+        journal.recordAll(saved.stream().map(Mutation::productCreated).toList());
+        return saved;
+    }
+}
@@ -0,0 +1,58 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.exception.BadRequestException;
+import com.inventory.repository.ProductSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for product pages.
+ * Encodes the sort key, direction and the (value, id) of the last row served,
+ * as URL-safe Base64 so clients treat it as a token rather than a format.
+ */
+final class ProductPageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    final ProductSort sort;
+    final boolean descending;
+    final Object afterValue;
+    final Long afterId;
+
+    private ProductPageCursor(ProductSort sort, boolean descending, Object afterValue, Long afterId) {
+        this.sort = sort;
+        this.descending = descending;
+        this.afterValue = afterValue;
+        this.afterId = afterId;
+    }
+
+    static String encode(ProductSort sort, boolean descending, ProductResponse last) {
+        Object value = switch (sort) {
+            case ID -> last.getId();
+            case NAME -> last.getName();
+            case PRICE -> last.getPrice().toPlainString();
+            case STOCK -> last.getStock();
+        };
+        // The value goes last because product names may contain the separator
+        String raw = sort.name() + SEPARATOR + (descending ? "d" : "a") + SEPARATOR + last.getId() + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductPageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            boolean descending = "d".equals(parts[1]);
+            Long afterId = Long.valueOf(parts[2]);
+            return new ProductPageCursor(sort, descending, sort.parseValue(parts[3]), afterId);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -1,18 +1,42 @@
 package com.inventory.service;
 
+import com.inventory.catalog.CatalogVersions;
+import com.inventory.catalog.ProductEtags;
+import com.inventory.catalog.ShopInventorySummaries;
+import com.inventory.dto.PageResponse;
+import com.inventory.dto.ProductChangesResponse;
 import com.inventory.dto.ProductRequest;
 import com.inventory.dto.ProductResponse;
+import com.inventory.dto.StockLevelResponse;
 import com.inventory.entity.Product;
 import com.inventory.entity.Shop;
+import com.inventory.events.ShopEventHub;
+import com.inventory.exception.BadRequestException;
+import com.inventory.exception.ConflictException;
 import com.inventory.exception.ForbiddenException;
 import com.inventory.exception.NotFoundException;
+import com.inventory.exception.PreconditionFailedException;
+import com.inventory.journal.Mutation;
+import com.inventory.journal.MutationJournal;
+import com.inventory.repository.ProductChangeHorizon;
 import com.inventory.repository.ProductRepository;
+import com.inventory.repository.ProductSort;
 import com.inventory.repository.ShopRepository;
+import com.inventory.reservation.StockReservationEngine;
+import com.inventory.search.ProductSearchIndex;
+import com.inventory.search.SearchHit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +46,27 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final ShopRepository shopRepository;
     private final ShopService shopService;
+    private final ProductSearchIndex productSearchIndex;
+    private final StockReservationEngine reservationEngine;
+    private final CatalogVersions catalogVersions;
+    private final ShopInventorySummaries inventorySummaries;
+    private final ShopEventHub shopEvents;
+    private final MutationJournal journal;
+
+    @Value("${app.products.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.products.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.products.bulk-delete.max-ids:10000}")
+    private int maxBulkDeleteIds;
+
+    @Value("${app.search.max-results:100}")
+    private int maxSearchResults;
+
+    @Value("${app.product-changes.max-changes:1000}")
+    private int maxChanges;
 
     @Transactional
     public ProductResponse addProduct(Long shopId, ProductRequest request, Long ownerId) {
@@ -30,8 +75,8 @@ public class ProductService {
             throw new ForbiddenException("You don't have permission to add products to this shop");
         }
 
-        Shop shop = shopRepository.findById(shopId)
-                .orElseThrow(() -> new NotFoundException("Shop not found with id: " + shopId));
+        // isOwner has just confirmed the shop exists, so a reference is enough for the foreign key
+        Shop shop = shopRepository.getReferenceById(shopId);
 
         Product product = new Product();
         product.setShop(shop);
@@ -42,24 +87,147 @@ public class ProductService {
         product.setCategory(request.getCategory());
 
         Product savedProduct = productRepository.save(product);
-        return mapToResponse(savedProduct);
+        ProductResponse response = mapToResponse(savedProduct);
+        inventorySummaries.productCreated(shopId, response.getId(), response.getPrice(), response.getStock(),
+                response.getCategory());
+        journal.record(Mutation.productCreated(response));
+        TransactionHooks.afterCommit(() -> {
+            productSearchIndex.index(response);
+            catalogVersions.catalogChanged(shopId);
+            shopEvents.productCreated(response);
+        });
+        return response;
     }
 
     @Transactional(readOnly = true)
     public List<ProductResponse> getProductsByShop(Long shopId) {
-        // Verify shop exists
-        shopRepository.findById(shopId)
+        // One query both verifies the shop exists and loads its products
+        return productRepository.findShopProductsPage(shopId, ProductSort.ID, false, null, null, null)
                 .orElseThrow(() -> new NotFoundException("Shop not found with id: " + shopId));
+    }
 
-        List<Product> products = productRepository.findByShopId(shopId);
-        return products.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Returns a single product.
+     *
+     * @throws NotFoundException if the product doesn't exist
+     */
+    @Transactional(readOnly = true)
+    public ProductResponse getProductById(Long productId) {
+        return productRepository.findResponsesByIdIn(List.of(productId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Product not found with id: " + productId));
     }
 
+    /**
+     * Returns one keyset page of a shop's products.
+     * Each page is a single index range scan on (shop_id, sort column, id), so
+     * its cost does not grow with the size of the catalog.
+     *
+     * @param shopId    The shop to list
+     * @param sortParam Sort key: id, name, price or stock (ignored when a cursor is given)
+     * @param direction asc or desc (ignored when a cursor is given)
+     * @param cursor    Opaque cursor from the previous page, or null for the first page
+     * @param size      Requested page size, or null for the configured default
+     * @return the page and the cursor for the next one
+     * @throws NotFoundException   if the shop doesn't exist
+     * @throws BadRequestException if the sort, direction, size or cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ProductResponse> getProductsPage(Long shopId, String sortParam, String direction, String cursor,
+            Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+
+        ProductSort sort;
+        boolean descending;
+        Object afterValue = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            ProductPageCursor decoded = ProductPageCursor.decode(cursor);
+            sort = decoded.sort;
+            descending = decoded.descending;
+            afterValue = decoded.afterValue;
+            afterId = decoded.afterId;
+        } else {
+            sort = parseSort(sortParam);
+            descending = parseDescending(direction);
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        List<ProductResponse> rows = productRepository
+                .findShopProductsPage(shopId, sort, descending, afterValue, afterId, pageSize + 1)
+                .orElseThrow(() -> new NotFoundException("Shop not found with id: " + shopId));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore
+                ? ProductPageCursor.encode(sort, descending, items.get(items.size() - 1))
+                : null;
+        return new PageResponse<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Returns what changed in a shop's catalog since a previous call: products
+     * created or modified, in their current state, and IDs of deleted ones.
+     * Several changes to one product come back as one entry, so the response
+     * grows with the number of products touched, not with the catalog size.
+     *
+     * The whole catalog is returned instead (a snapshot) on the first call,
+     * when the cursor predates the purged tombstones, or when more than
+     * app.product-changes.max-changes products changed.
+     *
+     * Runs in one REPEATABLE READ snapshot. The next cursor is the oldest
+     * transaction still running in it, so a change that commits later with a
+     * lower sequence than one already returned is picked up by the next call;
+     * a few changes may be returned twice.
+     *
+     * @param shopId The shop to sync
+     * @param since  nextSince from the previous response, or null for a snapshot
+     * @return the changes and the cursor for the next call
+     * @throws NotFoundException   if the shop doesn't exist
+     * @throws BadRequestException if the cursor is negative
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ProductChangesResponse getProductChanges(Long shopId, Long since) {
+        if (since != null && since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        ProductChangeHorizon horizon = productRepository.findChangeHorizon(shopId)
+                .orElseThrow(() -> new NotFoundException("Shop not found with id: " + shopId));
+        long nextSince = horizon.snapshotXmin();
+
+        // Cursors above xmax were issued by another database, e.g. before a restore
+        boolean resnapshot = since == null || since <= horizon.purgedThrough() || since > horizon.snapshotXmax();
+        if (!resnapshot) {
+            // One extra row tells whether the limit was exceeded
+            List<ProductResponse> changed = productRepository.findChangedSince(shopId, since, maxChanges + 1);
+            List<Long> deleted = changed.size() > maxChanges
+                    ? List.of()
+                    : productRepository.findDeletedSince(shopId, since, maxChanges + 1 - changed.size());
+            if (changed.size() + deleted.size() <= maxChanges) {
+                return new ProductChangesResponse(shopId, nextSince, false, changed, deleted);
+            }
+        }
+        List<ProductResponse> products = productRepository
+                .findShopProductsPage(shopId, ProductSort.ID, false, null, null, null)
+                .orElseThrow(() -> new NotFoundException("Shop not found with id: " + shopId));
+        return new ProductChangesResponse(shopId, nextSince, true, products, List.of());
+    }
+
+    /**
+     * Replaces a product's fields.
+     * The row is locked while it is read, so an If-Match ETag is compared
+     * against the state this update will actually overwrite.
+     *
+     * @param ifMatch Optional If-Match header; the update is refused if the
+     *                product changed since the client read it
+     * @throws PreconditionFailedException if If-Match does not match the current product
+     */
     @Transactional
-    public ProductResponse updateProduct(Long productId, ProductRequest request, Long ownerId) {
-        Product product = productRepository.findByIdAndShopOwnerId(productId, ownerId)
+    public ProductResponse updateProduct(Long productId, ProductRequest request, Long ownerId, String ifMatch) {
+        Product product = productRepository.findByIdAndShopOwnerIdForUpdate(productId, ownerId)
                 .orElseThrow(() -> {
                     // Check if product exists at all
                     if (!productRepository.existsById(productId)) {
@@ -69,6 +237,10 @@ public class ProductService {
                     return new ForbiddenException("You don't have permission to update this product");
                 });
 
+        if (!ProductEtags.matches(ifMatch, mapToResponse(product))) {
+            throw new PreconditionFailedException("Product was modified by someone else; reload and retry");
+        }
+
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
@@ -76,7 +248,57 @@ public class ProductService {
         product.setCategory(request.getCategory());
 
         Product updatedProduct = productRepository.save(product);
-        return mapToResponse(updatedProduct);
+        ProductResponse response = mapToResponse(updatedProduct);
+        inventorySummaries.productSaved(response.getShopId(), productId, response.getPrice(), response.getStock(),
+                response.getCategory());
+        journal.record(Mutation.productUpdated(response));
+        TransactionHooks.afterCommit(() -> {
+            productSearchIndex.index(response);
+            reservationEngine.invalidate(productId);
+            catalogVersions.catalogChanged(response.getShopId());
+            shopEvents.productUpdated(response);
+        });
+        return response;
+    }
+
+    /**
+     * Applies a signed stock change with one conditional UPDATE instead of a
+     * read-modify-write of the whole product.
+     *
+     * @param productId The product to adjust
+     * @param delta     Signed change (negative for sales)
+     * @param ownerId   The ID of the user adjusting the stock
+     * @return the new stock level
+     * @throws NotFoundException  if the product does not exist
+     * @throws ForbiddenException if the user doesn't own the product's shop
+     * @throws ConflictException  if the change would make stock negative or exceed the integer range
+     */
+    @Transactional
+    public StockLevelResponse adjustStock(Long productId, int delta, Long ownerId) {
+        StockLevelResponse level = productRepository.adjustStock(productId, ownerId, delta)
+                .orElseThrow(() -> {
+                    // Nothing was updated: work out why
+                    Product product = productRepository.findByIdAndShopOwnerId(productId, ownerId).orElse(null);
+                    if (product == null) {
+                        if (!productRepository.existsById(productId)) {
+                            return new NotFoundException("Product not found with id: " + productId);
+                        }
+                        return new ForbiddenException("You don't have permission to update this product");
+                    }
+                    if ((long) product.getStock() + delta > Integer.MAX_VALUE) {
+                        return new ConflictException("Stock would exceed " + Integer.MAX_VALUE + ": "
+                                + product.getStock() + " in stock");
+                    }
+                    return new ConflictException("Insufficient stock: " + product.getStock() + " available");
+                });
+        inventorySummaries.stockChanged(level);
+        journal.record(Mutation.stockAdjusted(level, delta));
+        TransactionHooks.afterCommit(() -> {
+            reservationEngine.invalidate(productId);
+            catalogVersions.catalogChanged(level.getShopId());
+            shopEvents.stockChanged(level);
+        });
+        return level;
     }
 
     @Transactional
@@ -91,32 +313,138 @@ public class ProductService {
                     return new ForbiddenException("You don't have permission to delete this product");
                 });
 
+        Long shopId = product.getShop().getId();
         productRepository.delete(product);
+        inventorySummaries.productsRemoved(List.of(shopId), List.of(productId));
+        journal.record(Mutation.productDeleted(shopId, productId));
+        TransactionHooks.afterCommit(() -> {
+            productSearchIndex.remove(productId);
+            reservationEngine.invalidate(productId);
+            catalogVersions.catalogChanged(shopId);
+            shopEvents.productDeleted(shopId, productId);
+        });
     }
 
+    /**
+     * Deletes several products of the caller in a single set-based statement.
+     * The ownership check is part of the DELETE itself; only when the deleted
+     * count falls short is a second query run to explain why, and the whole
+     * delete is rolled back.
+     *
+     * @param productIds IDs of the products to delete
+     * @param ownerId    The ID of the user attempting to delete
+     * @throws NotFoundException  if any product does not exist
+     * @throws ForbiddenException if any product belongs to another owner's shop
+     */
     @Transactional
     public void deleteProducts(List<Long> productIds, Long ownerId) {
         if (productIds == null || productIds.isEmpty()) {
             throw new IllegalArgumentException("Product IDs list cannot be empty");
         }
+        if (productIds.contains(null)) {
+            throw new BadRequestException("Product ID cannot be null");
+        }
+        if (productIds.size() > maxBulkDeleteIds) {
+            throw new BadRequestException("At most " + maxBulkDeleteIds + " products can be deleted at once");
+        }
 
-        List<Product> products = productRepository.findAllById(productIds);
+        Set<Long> distinctIds = new LinkedHashSet<>(productIds);
+        Map<Long, Long> shopByProduct = productRepository.deleteOwnedProducts(distinctIds, ownerId);
+        int deleted = shopByProduct.size();
 
-        if (products.size() != productIds.size()) {
-            throw new NotFoundException("One or more products not found");
+        if (deleted != distinctIds.size()) {
+            // Rows deleted above are already invisible here, so whatever is still
+            // found belongs to someone else and the rest never existed.
+            List<Object[]> remaining = productRepository.findIdAndNameByIdIn(distinctIds);
+            if (deleted + remaining.size() < distinctIds.size()) {
+                throw new NotFoundException("One or more products not found");
+            }
+            throw new ForbiddenException("You don't have permission to delete product: " + remaining.get(0)[1]);
         }
 
-        // Verify ownership for all products
-        for (Product product : products) {
-            if (!product.getShop().getOwnerId().equals(ownerId)) {
-                throw new ForbiddenException("You don't have permission to delete product: " + product.getName());
+        Set<Long> shopIds = new LinkedHashSet<>(shopByProduct.values());
+        inventorySummaries.productsRemoved(shopIds, distinctIds);
+        List<Mutation> deletions = new ArrayList<>(deleted);
+        shopByProduct.forEach((id, shopId) -> deletions.add(Mutation.productDeleted(shopId, id)));
+        journal.recordAll(deletions);
+        TransactionHooks.afterCommit(() -> {
+            distinctIds.forEach(id -> {
+                productSearchIndex.remove(id);
+                reservationEngine.invalidate(id);
+            });
+            shopIds.forEach(catalogVersions::catalogChanged);
+            shopByProduct.forEach((id, shopId) -> shopEvents.productDeleted(shopId, id));
+        });
+    }
+
+    /**
+     * Full-text search over product name, description and category across all
+     * shops, best match first.
+     * Matching and ranking are done by the in-memory search index; only the
+     * matched rows are then loaded by primary key.
+     *
+     * @param query    Free-text query
+     * @param category Optional category filter
+     * @param shopId   Optional shop filter
+     * @param limit    Maximum number of results
+     * @return matching products ordered by relevance
+     * @throws BadRequestException if the query is blank or the limit is out of range
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchProducts(String query, String category, Long shopId, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (limit < 1 || limit > maxSearchResults) {
+            throw new BadRequestException("Limit must be between 1 and " + maxSearchResults);
+        }
+
+        List<SearchHit> hits = productSearchIndex.search(query, category, shopId, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ProductResponse> productsById = productRepository
+                .findResponsesByIdIn(hits.stream().map(SearchHit::getProductId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+
+        List<ProductResponse> results = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            ProductResponse product = productsById.get(hit.getProductId());
+            if (product != null) {
+                results.add(product);
+            } else {
+                // Deleted after the index was searched; drop the entry if it is still there
+                productSearchIndex.remove(hit.getProductId());
             }
         }
+        return results;
+    }
 
-        productRepository.deleteAll(products);
+    private ProductSort parseSort(String sortParam) {
+        if (sortParam == null || sortParam.isBlank()) {
+            return ProductSort.ID;
+        }
+        try {
+            return ProductSort.fromParam(sortParam);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported sort: " + sortParam);
+        }
+    }
+
+    private boolean parseDescending(String direction) {
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new BadRequestException("Sort direction must be asc or desc");
     }
 
-    private ProductResponse mapToResponse(Product product) {
+    // Package-private and static so the JMH benchmarks can call it directly
+    static ProductResponse mapToResponse(Product product) {
         return new ProductResponse(
                 product.getId(),
                 product.getShop().getId(),
@@ -0,0 +1,48 @@
+package com.inventory.service;
+
+import com.inventory.dto.ReservationRequest;
+import com.inventory.dto.ReservationResponse;
+import com.inventory.reservation.Reservation;
+import com.inventory.reservation.StockReservationEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Stock holds for flash sales. Holds are served by the in-memory
+ * StockReservationEngine and never take a database round-trip on the hot path.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationService {
+
+    private final StockReservationEngine reservationEngine;
+
+    public ReservationResponse reserve(Long productId, ReservationRequest request, Long ownerId) {
+        Reservation reservation = reservationEngine.reserve(productId, ownerId, request.getQuantity(),
+                request.getTtlSeconds());
+        return mapToResponse(reservation);
+    }
+
+    public ReservationResponse getReservation(String reservationId, Long ownerId) {
+        return mapToResponse(reservationEngine.find(reservationId, ownerId));
+    }
+
+    public ReservationResponse confirm(String reservationId, Long ownerId) {
+        return mapToResponse(reservationEngine.confirm(reservationId, ownerId));
+    }
+
+    public ReservationResponse release(String reservationId, Long ownerId) {
+        return mapToResponse(reservationEngine.release(reservationId, ownerId));
+    }
+
+    private ReservationResponse mapToResponse(Reservation reservation) {
+        return new ReservationResponse(
+                reservation.getId(),
+                reservation.getProductId(),
+                reservation.getQuantity(),
+                reservation.getStatus().name(),
+                Instant.ofEpochMilli(reservation.getExpiresAtMillis()));
+    }
+}
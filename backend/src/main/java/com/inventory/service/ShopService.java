@@ -1,23 +1,67 @@
 package com.inventory.service;
 
+import com.inventory.catalog.CatalogVersions;
+import com.inventory.catalog.ShopInventorySummaries;
+import com.inventory.datasource.ReplicaRoutingDataSource;
+import com.inventory.dto.NearbyShopResponse;
+import com.inventory.dto.PageResponse;
 import com.inventory.dto.ShopRequest;
 import com.inventory.dto.ShopResponse;
+import com.inventory.dto.ShopSummaryResponse;
 import com.inventory.entity.Shop;
+import com.inventory.events.ShopEventHub;
+import com.inventory.exception.BadRequestException;
 import com.inventory.exception.ForbiddenException;
 import com.inventory.exception.NotFoundException;
+import com.inventory.journal.Mutation;
+import com.inventory.journal.MutationJournal;
+import com.inventory.geo.ShopDistance;
+import com.inventory.geo.ShopGeoIndex;
+import com.inventory.geo.ShopLocation;
+import com.inventory.repository.ProductRepository;
 import com.inventory.repository.ShopRepository;
+import com.inventory.search.ProductSearchIndex;
+import com.inventory.security.ShopOwnershipCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ShopService {
 
     private final ShopRepository shopRepository;
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ShopGeoIndex shopGeoIndex;
+    private final CatalogVersions catalogVersions;
+    private final ShopOwnershipCache ownershipCache;
+    private final ShopInventorySummaries inventorySummaries;
+    private final ShopEventHub shopEvents;
+    private final MutationJournal journal;
+
+    @Value("${app.admin.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.admin.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${app.geo.max-radius-km:100}")
+    private double maxRadiusKm;
+
+    @Value("${app.geo.max-results:100}")
+    private int maxNearbyResults;
 
     @Transactional
     public ShopResponse registerShop(ShopRequest request, Long ownerId) {
@@ -32,22 +76,45 @@ public class ShopService {
         shop.setDeliveryOption(request.getDeliveryOption());
 
         Shop savedShop = shopRepository.save(shop);
-        return mapToResponse(savedShop);
+        ShopResponse response = mapToResponse(savedShop);
+        journal.record(Mutation.shopCreated(response));
+        ShopLocation location = new ShopLocation(savedShop.getId(), savedShop.getLatitude(), savedShop.getLongitude());
+        TransactionHooks.afterCommit(() -> {
+            shopGeoIndex.put(location);
+            ownershipCache.shopCreated(savedShop.getId(), ownerId);
+        });
+        return response;
     }
 
+    /**
+     * Returns the shops of one owner, ordered by ID.
+     * The owner's shop IDs come from the ownership cache when known, so the
+     * shops are then read by primary key instead of by owner. Rows are read
+     * as DTOs and never attached to the persistence context.
+     *
+     * @param ownerId The owner whose shops to list
+     * @return the owner's shops
+     */
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsByOwner(Long ownerId) {
-        List<Shop> shops = shopRepository.findByOwnerId(ownerId);
-        return shops.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<ShopResponse> loaded = new ArrayList<>();
+        // The cache is kept by invalidation, so a lagging replica must not fill it
+        long[] shopIds = ownershipCache.shopsOf(ownerId, () -> ReplicaRoutingDataSource.onPrimary(() -> {
+            loaded.addAll(shopRepository.findResponsesByOwnerId(ownerId));
+            return loaded.stream().mapToLong(ShopResponse::getId).toArray();
+        }));
+        if (shopIds.length == 0) {
+            return List.of();
+        }
+        return loaded.isEmpty()
+                ? shopRepository.findResponsesByIdIn(Arrays.stream(shopIds).boxed().toList())
+                : loaded;
     }
 
     @Transactional(readOnly = true)
     public ShopResponse getShopById(Long shopId) {
-        Shop shop = shopRepository.findById(shopId)
+        return shopRepository.findResponseById(shopId)
                 .orElseThrow(() -> new NotFoundException("Shop not found with id: " + shopId));
-        return mapToResponse(shop);
     }
 
     /**
@@ -58,15 +125,145 @@ public class ShopService {
      */
     @Transactional(readOnly = true)
     public List<ShopResponse> getAllShops() {
-        List<Shop> shops = shopRepository.findAll();
-        return shops.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return shopRepository.findAllResponses();
+    }
+
+    /**
+     * Returns one page of all shops ordered by ID.
+     * Used by admin endpoints instead of loading every shop at once.
+     *
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param size   Requested page size, or null for the configured default
+     * @return the page and the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ShopResponse> getShopsPage(String cursor, Integer size) {
+        return IdKeysetPages.fetch(cursor, size, defaultPageSize, maxPageSize,
+                shopRepository::findPageAfter, ShopResponse::getId);
+    }
+
+    /**
+     * Pushes every shop to the sink one row at a time.
+     * Rows are read through a JDBC cursor with a bounded fetch size and are never
+     * attached to the persistence context, so memory use does not depend on the
+     * number of shops.
+     *
+     * @param sink receives each shop in ID order
+     */
+    @Transactional(readOnly = true)
+    public void streamAllShops(Consumer<ShopResponse> sink) {
+        try (Stream<ShopResponse> shops = shopRepository.streamAll()) {
+            shops.forEach(sink);
+        }
+    }
+
+    /**
+     * Finds the shops nearest to a point, closest first.
+     * Candidates come from the in-memory spatial index; only the matching shops
+     * are then loaded from the database.
+     *
+     * @param latitude  Latitude of the customer
+     * @param longitude Longitude of the customer
+     * @param radiusKm  Search radius in kilometres
+     * @param limit     Maximum number of shops to return
+     * @return nearby shops with their distance
+     * @throws BadRequestException if the coordinates, radius or limit are out of range
+     */
+    @Transactional(readOnly = true)
+    public List<NearbyShopResponse> findNearbyShops(double latitude, double longitude, double radiusKm, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            throw new BadRequestException("Radius must be greater than 0 and at most " + maxRadiusKm + " km");
+        }
+        if (limit < 1 || limit > maxNearbyResults) {
+            throw new BadRequestException("Limit must be between 1 and " + maxNearbyResults);
+        }
+
+        List<ShopDistance> hits = shopGeoIndex.nearest(latitude, longitude, radiusKm, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ShopResponse> shopsById = shopRepository
+                .findResponsesByIdIn(hits.stream().map(ShopDistance::getShopId).toList())
+                .stream()
+                .collect(Collectors.toMap(ShopResponse::getId, Function.identity()));
+
+        List<NearbyShopResponse> result = new ArrayList<>(hits.size());
+        for (ShopDistance hit : hits) {
+            ShopResponse shop = shopsById.get(hit.getShopId());
+            // Skip entries deleted after the index was read
+            if (shop != null) {
+                result.add(new NearbyShopResponse(shop, hit.getDistanceKm()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the inventory totals of one shop: SKU count, stock value,
+     * low-stock counts and a per-category breakdown.
+     * Served from the incrementally maintained aggregates, so the cost does
+     * not depend on catalog size once the shop has been summarized.
+     *
+     * @param shopId  The shop to summarize
+     * @param userId  The ID of the user asking
+     * @param isAdmin Whether the user is an admin (bypasses ownership check)
+     * @throws NotFoundException  if the shop doesn't exist
+     * @throws ForbiddenException if the user is not the owner and not admin
+     */
+    public ShopSummaryResponse getInventorySummary(Long shopId, Long userId, boolean isAdmin) {
+        // Not transactional: the aggregate is built from the primary, outside any read-only transaction
+        if (!isOwner(shopId, userId) && !isAdmin) {
+            throw new ForbiddenException("You don't have permission to view this shop's inventory");
+        }
+        return inventorySummaries.summarize(shopId);
+    }
+
+    /**
+     * Opens a stream of the shop's product changes, for its owner or an admin.
+     *
+     * @param shopId  The shop to follow
+     * @param userId  The requesting user
+     * @param isAdmin Whether the requesting user is an admin
+     * @return the event stream
+     * @throws NotFoundException  if the shop does not exist
+     * @throws ForbiddenException if the user neither owns the shop nor is an admin
+     */
+    public SseEmitter subscribeToEvents(Long shopId, Long userId, boolean isAdmin) {
+        if (!isOwner(shopId, userId) && !isAdmin) {
+            throw new ForbiddenException("You don't have permission to follow this shop's products");
+        }
+        return shopEvents.subscribe(shopId);
+    }
+
+    /**
+     * Returns the inventory totals of every shop of one owner, ordered by shop ID.
+     *
+     * @param ownerId The owner whose shops to summarize
+     * @return one summary per shop
+     */
+    public List<ShopSummaryResponse> getInventorySummariesByOwner(Long ownerId) {
+        long[] shopIds = ownershipCache.shopsOf(ownerId, () -> shopRepository.findIdsByOwnerId(ownerId).stream()
+                .mapToLong(Long::longValue)
+                .toArray());
+        // The cached array is shared, so sort a copy
+        long[] ordered = shopIds.clone();
+        Arrays.sort(ordered);
+        List<ShopSummaryResponse> summaries = new ArrayList<>(ordered.length);
+        for (long shopId : ordered) {
+            summaries.add(inventorySummaries.summarize(shopId));
+        }
+        return summaries;
     }
 
     /**
      * Checks if a user is the owner of a specific shop.
      * This is used for authorization checks before allowing operations on a shop.
+     * Answered from the ownership cache when possible; a miss reads only the
+     * owner column.
      * 
      * @param shopId  The ID of the shop to check
      * @param ownerId The ID of the user to verify ownership
@@ -75,9 +272,13 @@ public class ShopService {
      */
     @Transactional(readOnly = true)
     public boolean isOwner(Long shopId, Long ownerId) {
-        Shop shop = shopRepository.findById(shopId)
-                .orElseThrow(() -> new NotFoundException("Shop not found with id: " + shopId));
-        return shop.getOwnerId().equals(ownerId);
+        // Loaded from the primary: a replica could still show a shop deleted after the cache was told
+        Long shopOwnerId = ownershipCache.ownerOf(shopId,
+                id -> ReplicaRoutingDataSource.onPrimary(() -> shopRepository.findOwnerIdById(id).orElse(null)));
+        if (shopOwnerId == null) {
+            throw new NotFoundException("Shop not found with id: " + shopId);
+        }
+        return shopOwnerId.equals(ownerId);
     }
 
     /**
@@ -104,7 +305,18 @@ public class ShopService {
 
         // Delete the shop (this will cascade delete all associated products due to
         // orphanRemoval = true)
+        Long shopOwnerId = shop.getOwnerId();
+        List<Long> productIds = productRepository.findIdsByShopIdIn(List.of(shopId));
         shopRepository.delete(shop);
+        inventorySummaries.shopRemoved(shopId);
+        journal.record(Mutation.shopDeleted(shopId, shopOwnerId));
+        TransactionHooks.afterCommit(() -> {
+            productSearchIndex.removeAll(productIds);
+            shopGeoIndex.remove(shopId);
+            catalogVersions.shopRemoved(shopId);
+            ownershipCache.shopRemoved(shopId, shopOwnerId);
+            shopEvents.shopRemoved(shopId);
+        });
     }
 
     /**
@@ -142,17 +354,35 @@ public class ShopService {
         }
 
         // If all validations pass, delete all shops
+        Map<Long, Long> ownerByShop = shopsToDelete.stream()
+                .collect(Collectors.toMap(Shop::getId, Shop::getOwnerId));
+        List<Long> productIds = productRepository.findIdsByShopIdIn(ownerByShop.keySet());
         shopRepository.deleteAll(shopsToDelete);
+        ownerByShop.keySet().forEach(inventorySummaries::shopRemoved);
+        journal.recordAll(ownerByShop.entrySet().stream()
+                .map(e -> Mutation.shopDeleted(e.getKey(), e.getValue()))
+                .toList());
+        TransactionHooks.afterCommit(() -> {
+            productSearchIndex.removeAll(productIds);
+            ownerByShop.forEach((id, shopOwnerId) -> {
+                shopGeoIndex.remove(id);
+                catalogVersions.shopRemoved(id);
+                ownershipCache.shopRemoved(id, shopOwnerId);
+                shopEvents.shopRemoved(id);
+            });
+        });
     }
 
     /**
      * Converts a Shop entity to a ShopResponse DTO.
      * This method extracts only the necessary information to send to the client.
      * 
+     * Package-private and static so the JMH benchmarks can call it directly.
+     * 
      * @param shop The Shop entity to convert
      * @return ShopResponse DTO containing shop information
      */
-    private ShopResponse mapToResponse(Shop shop) {
+    static ShopResponse mapToResponse(Shop shop) {
         return new ShopResponse(
                 shop.getId(), // Shop's unique identifier
                 shop.getName(), // Shop name
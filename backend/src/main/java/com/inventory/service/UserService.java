@@ -1,25 +1,34 @@
 package com.inventory.service;
 
+import com.inventory.dto.PageResponse;
 import com.inventory.dto.UserRegistrationRequest;
 import com.inventory.dto.UserResponse;
 import com.inventory.entity.User;
 import com.inventory.exception.BadRequestException;
 import com.inventory.exception.NotFoundException;
 import com.inventory.repository.UserRepository;
+import com.inventory.security.PasswordHashingPool;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingPool passwordHashingPool;
+
+    @Value("${app.admin.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.admin.page.max-size:1000}")
+    private int maxPageSize;
 
     @Transactional
     public UserResponse registerUser(UserRegistrationRequest request) {
@@ -31,7 +40,7 @@ public class UserService {
         // Create new user with encrypted password
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword())); // BCrypt encryption
+        user.setPassword(passwordHashingPool.encode(request.getPassword())); // BCrypt encryption
         user.setRole(request.getRole());
 
         User savedUser = userRepository.save(user);
@@ -40,16 +49,26 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return userRepository.findAllResponses();
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<UserResponse> getUsersPage(String cursor, Integer size) {
+        return IdKeysetPages.fetch(cursor, size, defaultPageSize, maxPageSize,
+                userRepository::findPageAfter, UserResponse::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserResponse> sink) {
+        try (Stream<UserResponse> users = userRepository.streamAll()) {
+            users.forEach(sink);
+        }
     }
 
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
+        return userRepository.findResponseById(id)
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
-        return mapToResponse(user);
     }
 
     @Transactional
@@ -65,7 +84,7 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
 
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingPool.encode(newPassword));
         User updatedUser = userRepository.save(user);
         return mapToResponse(updatedUser);
     }
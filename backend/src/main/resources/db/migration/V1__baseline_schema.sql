@@ -0,0 +1,40 @@
+-- Tables as the JPA entities map them. IF NOT EXISTS lets databases that were
+-- created by hibernate.ddl-auto=update adopt this history unchanged.
+-- IDs are identity columns, backed by sequences that bulk loaders reserve
+-- blocks from with nextval(pg_get_serial_sequence(...)).
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS shop (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(255)     NOT NULL,
+    address         VARCHAR(255)     NOT NULL,
+    phone           VARCHAR(255)     NOT NULL,
+    owner_id        BIGINT           NOT NULL,
+    latitude        DOUBLE PRECISION NOT NULL,
+    longitude       DOUBLE PRECISION NOT NULL,
+    open_hours      VARCHAR(255)     NOT NULL,
+    delivery_option VARCHAR(255)     NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS product (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    shop_id     BIGINT         NOT NULL REFERENCES shop (id),
+    name        VARCHAR(255)   NOT NULL,
+    description TEXT,
+    price       NUMERIC(10, 2) NOT NULL,
+    stock       INTEGER        NOT NULL,
+    category    VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS stock_reservation_applied (
+    reservation_id VARCHAR(36)  PRIMARY KEY,
+    product_id     BIGINT       NOT NULL,
+    quantity       INTEGER      NOT NULL,
+    applied_at     TIMESTAMP(6) NOT NULL
+);
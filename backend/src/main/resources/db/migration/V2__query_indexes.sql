@@ -0,0 +1,21 @@
+-- Indexes for the queries the application runs. Databases created by
+-- hibernate.ddl-auto=update already have the ones declared on the entities
+-- under the same names; on a large existing catalog, create the new ones by
+-- hand with CREATE INDEX CONCURRENTLY before deploying to avoid blocking writes.
+
+-- Shop listings by owner and ownership checks
+CREATE INDEX IF NOT EXISTS idx_shop_owner_id ON shop (owner_id);
+
+-- Keyset pagination: one (shop_id, sort column, id) index per sort key.
+-- (shop_id, id) also serves whole-catalog reads, the shop foreign key and
+-- shop deletes.
+CREATE INDEX IF NOT EXISTS idx_product_shop_id_id ON product (shop_id, id);
+CREATE INDEX IF NOT EXISTS idx_product_shop_name_id ON product (shop_id, name, id);
+CREATE INDEX IF NOT EXISTS idx_product_shop_price_id ON product (shop_id, price, id);
+CREATE INDEX IF NOT EXISTS idx_product_shop_stock_id ON product (shop_id, stock, id);
+
+-- Category filters and per-category breakdowns within a shop
+CREATE INDEX IF NOT EXISTS idx_product_shop_category_id ON product (shop_id, category, id);
+
+-- Daily purge of old applied-reservation markers
+CREATE INDEX IF NOT EXISTS idx_stock_reservation_applied_at ON stock_reservation_applied (applied_at);
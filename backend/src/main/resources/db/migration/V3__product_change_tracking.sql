@@ -0,0 +1,63 @@
+-- Change tracking for GET /shops/{shopId}/products/changes.
+--
+-- Every product row records the ID of the transaction that last wrote it, and
+-- every delete leaves a tombstone with the ID of the deleting transaction.
+-- Transaction IDs (xid8, as bigint) never wrap and only grow, so they serve as
+-- the change sequence. Triggers keep them current for every writer: JPA,
+-- batched JDBC, the reservation write-back and shop cascades alike.
+
+-- Rows written before this migration read as 0, older than any client cursor
+ALTER TABLE product ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE product ALTER COLUMN change_xid SET DEFAULT pg_current_xact_id()::text::bigint;
+
+CREATE OR REPLACE FUNCTION product_touch_change_xid() RETURNS trigger AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Updates that leave the row as it was (e.g. stock already at zero) are not changes
+DROP TRIGGER IF EXISTS product_change_xid ON product;
+CREATE TRIGGER product_change_xid
+    BEFORE UPDATE ON product
+    FOR EACH ROW
+    WHEN (OLD.* IS DISTINCT FROM NEW.*)
+    EXECUTE FUNCTION product_touch_change_xid();
+
+CREATE INDEX IF NOT EXISTS idx_product_shop_change_xid ON product (shop_id, change_xid);
+
+CREATE TABLE IF NOT EXISTS product_tombstone (
+    product_id BIGINT       PRIMARY KEY,
+    shop_id    BIGINT       NOT NULL,
+    change_xid BIGINT       NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_tombstone_shop_change_xid ON product_tombstone (shop_id, change_xid);
+CREATE INDEX IF NOT EXISTS idx_product_tombstone_deleted_at ON product_tombstone (deleted_at);
+
+-- One statement-level insert per DELETE, however many rows it removed
+CREATE OR REPLACE FUNCTION product_record_tombstones() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO product_tombstone (product_id, shop_id, change_xid, deleted_at)
+    SELECT id, shop_id, pg_current_xact_id()::text::bigint, now() FROM deleted_rows;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS product_tombstones ON product;
+CREATE TRIGGER product_tombstones
+    AFTER DELETE ON product
+    REFERENCING OLD TABLE AS deleted_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION product_record_tombstones();
+
+-- Newest change_xid among purged tombstones. A client whose cursor is not past
+-- it may have missed a delete and is sent a full snapshot instead.
+CREATE TABLE IF NOT EXISTS product_tombstone_horizon (
+    id             SMALLINT PRIMARY KEY CHECK (id = 1),
+    purged_through BIGINT   NOT NULL
+);
+
+INSERT INTO product_tombstone_horizon (id, purged_through) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
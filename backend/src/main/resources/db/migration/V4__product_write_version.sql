@@ -0,0 +1,9 @@
+-- Orders product writes for the in-memory shop inventory summaries.
+--
+-- A writer draws a value while it holds the product's row lock, so whoever
+-- writes the row next draws a higher one. Summaries apply changes after
+-- commit in whatever order the transactions finish and use these values to
+-- skip the ones that are already out of date. Values are not transactional:
+-- gaps from rolled-back writes are harmless.
+
+CREATE SEQUENCE IF NOT EXISTS product_write_version;
@@ -0,0 +1,19 @@
+-- Lets Hibernate batch inserts: the entities take IDs from the identity
+-- sequences through its pooled optimizer, which reserves 50 IDs per nextval
+-- (IdBlocks.SIZE), and the JDBC bulk loaders reserve whole blocks the same
+-- way. Each sequence therefore steps by 50, and a value it returns is the
+-- last ID of a block of 50 unused ones.
+DO $$
+DECLARE
+    t   text;
+    seq text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'shop', 'product'] LOOP
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET INCREMENT BY 50', t);
+        -- Marks the current value as used without ever lowering it, so the
+        -- next block lies above every ID handed out so far
+        seq := pg_get_serial_sequence(t, 'id');
+        EXECUTE format('SELECT setval(%L, GREATEST((SELECT last_value FROM %s), '
+                || '(SELECT COALESCE(MAX(id), 0) FROM %I)))', seq, seq, t);
+    END LOOP;
+END $$;
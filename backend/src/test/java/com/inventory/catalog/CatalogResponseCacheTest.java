@@ -0,0 +1,31 @@
+package com.inventory.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogResponseCacheTest {
+
+    @Test
+    void acceptsGzipOnlyWithANonZeroWeight() {
+        assertThat(CatalogResponseCache.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(CatalogResponseCache.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(CatalogResponseCache.acceptsGzip("*")).isTrue();
+        assertThat(CatalogResponseCache.acceptsGzip("x-gzip")).isTrue();
+
+        assertThat(CatalogResponseCache.acceptsGzip(null)).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("identity")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("gzip ; q=0.000, identity")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("*;q=0")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("gzip;q=high")).isFalse();
+        // Not a substring match
+        assertThat(CatalogResponseCache.acceptsGzip("gzip-like")).isFalse();
+    }
+
+    @Test
+    void gzipBodyHasItsOwnStrongEtag() {
+        assertThat(CatalogResponseCache.gzipEtag("\"c7-abc-42\"")).isEqualTo("\"c7-abc-42-gz\"");
+    }
+}
@@ -0,0 +1,167 @@
+package com.inventory.catalog;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.dto.ShopSummaryResponse;
+import com.inventory.dto.StockLevelResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the after-completion callbacks of simulated transactions in a chosen
+ * order, as committing threads may, against a fake catalog table.
+ */
+class ShopInventorySummariesTest {
+
+    private static final Long SHOP = 1L;
+
+    // The "committed" rows a rebuild reads: product id to {price, stock}
+    private final Map<Long, Object[]> rows = new LinkedHashMap<>();
+    private long sequence;
+    private int loads;
+
+    private ShopInventorySummaries summaries;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType) {
+                assertThat(sql).isEqualTo(ShopInventorySummaries.NEXT_VERSION_SQL);
+                return requiredType.cast(++sequence);
+            }
+
+            @Override
+            public void query(String sql, RowCallbackHandler handler, Object... args) {
+                loads++;
+                for (Map.Entry<Long, Object[]> row : rows.entrySet()) {
+                    try {
+                        handler.processRow(resultSet(row.getKey(), (BigDecimal) row.getValue()[0],
+                                (Integer) row.getValue()[1]));
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        };
+        summaries = new ShopInventorySummaries(jdbcTemplate, 5, 1_000_000, new SimpleMeterRegistry());
+        rows.put(10L, new Object[] { new BigDecimal("2.00"), 20 });
+        summaries.summarize(SHOP);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void laterWriteWinsWhenItsTransactionCompletesFirst() {
+        // T1 sets stock to 10 holding the row lock; T2 waits, adds 5 and commits 15
+        List<TransactionSynchronization> t1 = inTransaction(() -> summaries.productSaved(SHOP, 10L,
+                new BigDecimal("3.00"), 10, null));
+        List<TransactionSynchronization> t2 = inTransaction(() -> summaries.stockChanged(
+                new StockLevelResponse(10L, SHOP, 15)));
+
+        commit(t2);
+        commit(t1);
+
+        ShopSummaryResponse summary = summaries.summarize(SHOP);
+        assertThat(summary.getTotalStock()).isEqualTo(15);
+        // T1's price is still applied: only its stock was superseded
+        assertThat(summary.getStockValue()).isEqualByComparingTo("45.00");
+        assertThat(loads).isEqualTo(1);
+    }
+
+    @Test
+    void olderStockNeverOverwritesNewer() {
+        List<TransactionSynchronization> sale = inTransaction(() -> summaries.stockChanged(
+                new StockLevelResponse(10L, SHOP, 0)));
+        List<TransactionSynchronization> restock = inTransaction(() -> summaries.stocksChanged(
+                List.of(new StockLevelResponse(10L, SHOP, 7))));
+
+        commit(restock);
+        commit(sale);
+
+        assertThat(summaries.summarize(SHOP).getTotalStock()).isEqualTo(7);
+    }
+
+    @Test
+    void lateUpdateDoesNotResurrectADeletedProduct() {
+        List<TransactionSynchronization> update = inTransaction(() -> summaries.productsSaved(SHOP,
+                List.of(new ProductResponse(10L, SHOP, "Tea", null, new BigDecimal("3.00"), 4, null))));
+        List<TransactionSynchronization> delete = inTransaction(() -> summaries.productsRemoved(List.of(SHOP),
+                List.of(10L)));
+
+        commit(delete);
+        commit(update);
+
+        assertThat(summaries.summarize(SHOP).getSkuCount()).isZero();
+    }
+
+    @Test
+    void stockOfAProductNotYetCreatedHereRebuildsTheShop() {
+        List<TransactionSynchronization> create = inTransaction(() -> summaries.productCreated(SHOP, 11L,
+                new BigDecimal("1.00"), 3, null));
+        List<TransactionSynchronization> sale = inTransaction(() -> summaries.stockChanged(
+                new StockLevelResponse(11L, SHOP, 1)));
+        rows.put(11L, new Object[] { new BigDecimal("1.00"), 1 });
+
+        commit(sale);
+        commit(create);
+
+        assertThat(summaries.summarize(SHOP).getTotalStock()).isEqualTo(21);
+        assertThat(loads).isEqualTo(2);
+    }
+
+    @Test
+    void rolledBackWritesAreNotApplied() {
+        List<TransactionSynchronization> t1 = inTransaction(() -> summaries.stockChanged(
+                new StockLevelResponse(10L, SHOP, 99)));
+
+        t1.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(summaries.summarize(SHOP).getTotalStock()).isEqualTo(20);
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable writes) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writes.run();
+            return new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void commit(List<TransactionSynchronization> synchronizations) {
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static ResultSet resultSet(Long id, BigDecimal price, int stock) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(id);
+        when(rs.getBigDecimal(2)).thenReturn(price);
+        when(rs.getInt(3)).thenReturn(stock);
+        when(rs.getString(4)).thenReturn(null);
+        return rs;
+    }
+}
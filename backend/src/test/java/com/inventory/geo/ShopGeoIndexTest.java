@@ -0,0 +1,111 @@
+package com.inventory.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShopGeoIndexTest {
+
+    @Test
+    void nearestMatchesABruteForceScan() {
+        Random random = new Random(42);
+        for (double cellSizeDeg : new double[] { 0.05, 0.5, 7.0 }) {
+            ShopGeoIndex index = new ShopGeoIndex(cellSizeDeg);
+            List<ShopLocation> shops = new ArrayList<>();
+            for (long id = 0; id < 5000; id++) {
+                // Dense around a city, near both poles and along the antimeridian, plus uniform
+                double latitude = switch ((int) (id % 4)) {
+                    case 0 -> 40 + random.nextDouble();
+                    case 1 -> 89.5 + random.nextDouble() * 0.5;
+                    case 2 -> -90 + random.nextDouble() * 0.5;
+                    default -> random.nextDouble() * 180 - 90;
+                };
+                double longitude = id % 7 == 0 ? 179.9 + random.nextDouble() * 0.1 : random.nextDouble() * 360 - 180;
+                ShopLocation shop = new ShopLocation(id, latitude, longitude);
+                shops.add(shop);
+                index.put(shop);
+            }
+
+            for (int q = 0; q < 500; q++) {
+                double latitude = switch (q % 5) {
+                    case 0 -> 40 + random.nextDouble();
+                    case 1 -> 89.9 + random.nextDouble() * 0.1;
+                    case 2 -> -90 + random.nextDouble() * 0.2;
+                    case 3 -> q % 2 == 0 ? 90 : -90;
+                    default -> random.nextDouble() * 180 - 90;
+                };
+                double longitude = q % 3 == 0 ? -180 : random.nextDouble() * 360 - 180;
+                double radiusKm = new double[] { 1, 5, 50, 100 }[q % 4];
+                int limit = 1 + random.nextInt(20);
+
+                List<Double> expected = shops.stream()
+                        .mapToDouble(s -> GeoMath.haversineKm(latitude, longitude, s.getLatitude(), s.getLongitude()))
+                        .filter(d -> d <= radiusKm)
+                        .sorted()
+                        .limit(limit)
+                        .boxed()
+                        .toList();
+                List<ShopDistance> found = index.nearest(latitude, longitude, radiusKm, limit);
+
+                assertThat(found).extracting(ShopDistance::getDistanceKm)
+                        .as("cell %s, query (%s, %s), radius %s km, limit %s", cellSizeDeg, latitude, longitude,
+                                radiusKm, limit)
+                        .containsExactlyElementsOf(expected);
+                assertThat(found).extracting(ShopDistance::getShopId).doesNotHaveDuplicates();
+            }
+        }
+    }
+
+    @Test
+    void findsShopsAcrossTheAntimeridian() {
+        ShopGeoIndex index = new ShopGeoIndex(0.05);
+        index.put(new ShopLocation(1L, 10.0, 179.999));
+        index.put(new ShopLocation(2L, 10.0, 170.0));
+
+        assertThat(index.nearest(10.0, -179.999, 5, 10))
+                .extracting(ShopDistance::getShopId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void findsShopsOnTheFarSideOfAPole() {
+        ShopGeoIndex index = new ShopGeoIndex(0.05);
+        // About 2 km apart across the pole, but 180 degrees of longitude apart
+        index.put(new ShopLocation(1L, 89.99, 170.0));
+
+        assertThat(index.nearest(89.99, -10.0, 5, 10))
+                .extracting(ShopDistance::getShopId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void searchNearAPoleIsBoundedByTheRowsItReaches() {
+        ShopGeoIndex index = new ShopGeoIndex(0.05);
+        int topRow = 3599;
+
+        // The circle covers the pole, so the top rows are scanned whole, once
+        assertThat(index.lonReachCells(89.99, 5, topRow)).isEqualTo(ShopGeoIndex.FULL_ROW);
+        // Rows beyond the radius are skipped
+        assertThat(index.lonReachCells(89.99, 5, topRow - 10)).isEqualTo(ShopGeoIndex.UNREACHABLE);
+        // Away from the poles a row is searched only a few cells either side
+        assertThat(index.lonReachCells(0.0, 5, 1800)).isBetween(1, 2);
+    }
+
+    @Test
+    void movedAndRemovedShopsAreNotFoundAtTheirOldPosition() {
+        ShopGeoIndex index = new ShopGeoIndex(0.05);
+        index.put(new ShopLocation(1L, 51.5, -0.12));
+        index.put(new ShopLocation(2L, 51.5, -0.13));
+
+        index.put(new ShopLocation(1L, 48.85, 2.35));
+        index.remove(2L);
+
+        assertThat(index.nearest(51.5, -0.12, 10, 10)).isEmpty();
+        assertThat(index.nearest(48.85, 2.35, 10, 10)).extracting(ShopDistance::getShopId).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+}
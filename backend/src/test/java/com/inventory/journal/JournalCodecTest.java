@@ -0,0 +1,79 @@
+package com.inventory.journal;
+
+import com.inventory.journal.Mutation.Aborted;
+import com.inventory.journal.Mutation.ProductDeleted;
+import com.inventory.journal.Mutation.ProductSaved;
+import com.inventory.journal.Mutation.ShopCreated;
+import com.inventory.journal.Mutation.ShopDeleted;
+import com.inventory.journal.Mutation.StockAdjusted;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalCodecTest {
+
+    private static final List<Mutation> MUTATIONS = List.of(
+            new ProductSaved(true, 1L, 10L, new BigDecimal("19.99"), 5, "Caf\u00e9 au lait", null, "drinks"),
+            // A description longer than 127 bytes takes a multi-byte length
+            new ProductSaved(false, 1L, 10L, new BigDecimal("99999999.00"), Integer.MAX_VALUE, "",
+                    "x".repeat(20_000), null),
+            new StockAdjusted(1L, 10L, -3, 2),
+            new ProductDeleted(1L, 10L),
+            new ShopCreated(1L, 2L, "Corner Shop", "1 High St", "+44 20 0000 0000", -33.8688, 151.2093,
+                    "9-17", "IN_HOUSE_DRIVER"),
+            new ShopDeleted(1L, 2L),
+            new Aborted(7L, 3));
+
+    @Test
+    void roundTripsEveryMutationType() {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long sequence = 100;
+        for (Mutation mutation : MUTATIONS) {
+            byte[] record = JournalCodec.encode(mutation);
+            JournalCodec.seal(record, sequence++, 1_700_000_000_000L);
+            buffer.put(record);
+        }
+        int limit = buffer.position();
+
+        List<JournalRecord> decoded = new ArrayList<>();
+        int offset = 0;
+        int length;
+        while ((length = JournalCodec.validLength(buffer, offset, limit)) > 0) {
+            decoded.add(JournalCodec.decode(buffer, offset));
+            offset += length;
+        }
+
+        assertThat(offset).isEqualTo(limit);
+        assertThat(decoded).extracting(JournalRecord::mutation).containsExactlyElementsOf(MUTATIONS);
+        assertThat(decoded).extracting(JournalRecord::sequence).containsExactly(100L, 101L, 102L, 103L, 104L,
+                105L, 106L);
+        assertThat(decoded).extracting(JournalRecord::timestampMillis).containsOnly(1_700_000_000_000L);
+    }
+
+    @Test
+    void rejectsTornAndCorruptRecords() {
+        byte[] record = JournalCodec.encode(new StockAdjusted(1L, 10L, 4, 9));
+        JournalCodec.seal(record, 1, 0);
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+
+        assertThat(JournalCodec.validLength(buffer, 0, record.length)).isEqualTo(record.length);
+        // Cut short by a crash part-way through the write
+        assertThat(JournalCodec.validLength(buffer, 0, record.length - 1)).isZero();
+        assertThat(JournalCodec.validLength(buffer, 0, JournalCodec.PREFIX_BYTES - 1)).isZero();
+
+        record[record.length - 1] ^= 1;
+        assertThat(JournalCodec.validLength(buffer, 0, record.length)).isZero();
+    }
+
+    @Test
+    void treatsZeroedSpaceAsTheEndOfTheSegment() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        assertThat(JournalCodec.validLength(buffer, 0, buffer.capacity())).isZero();
+    }
+}
@@ -0,0 +1,44 @@
+package com.inventory.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdBlocksTest {
+
+    // The product sequence after two blocks: the next values end the third and fourth
+    private final List<Object[]> calls = new ArrayList<>();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+        @Override
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            calls.add(args);
+            List<T> blockEnds = new ArrayList<>();
+            for (int i = 1; i <= (Integer) args[1]; i++) {
+                blockEnds.add(elementType.cast(100L + i * (long) IdBlocks.SIZE));
+            }
+            return blockEnds;
+        }
+    };
+
+    @Test
+    void reservesWholeBlocksInOneRoundTrip() {
+        long[] ids = IdBlocks.reserve(jdbcTemplate, "product", IdBlocks.SIZE + 1);
+
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).containsExactly("product", 2);
+        assertThat(ids).hasSize(IdBlocks.SIZE + 1);
+        assertThat(ids[0]).isEqualTo(101L);
+        assertThat(ids[IdBlocks.SIZE - 1]).isEqualTo(150L);
+        assertThat(ids[IdBlocks.SIZE]).isEqualTo(151L);
+    }
+
+    @Test
+    void reservesNothingForNoRows() {
+        assertThat(IdBlocks.reserve(jdbcTemplate, "product", 0)).isEmpty();
+        assertThat(calls).isEmpty();
+    }
+}
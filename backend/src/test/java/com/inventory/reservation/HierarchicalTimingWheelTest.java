@@ -0,0 +1,90 @@
+package com.inventory.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesEachTimerOnceNoEarlierThanItsDeadlineAndAtMostOneTickLate() {
+        Random random = new Random(7);
+        long tickMs = 10;
+        long start = 1_003;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(tickMs, 8, start);
+
+        // Deadlines from the current slot to several overflow levels out
+        Map<Integer, Long> pending = new HashMap<>();
+        long now = start;
+        int next = 0;
+        for (int step = 0; step < 2000; step++) {
+            for (int i = random.nextInt(5); i > 0; i--) {
+                long deadline = now + random.nextInt(random.nextBoolean() ? 100 : 50_000);
+                assertThat(wheel.add(next, deadline)).isTrue();
+                pending.put(next++, deadline);
+            }
+
+            long previous = now;
+            now += random.nextInt(random.nextInt(10) == 0 ? 2_000 : 25);
+            List<Integer> fired = wheel.advanceTo(now);
+
+            assertThat(fired).doesNotHaveDuplicates();
+            for (Integer id : fired) {
+                long deadline = pending.remove(id);
+                assertThat(deadline).as("timer %s", id).isLessThanOrEqualTo(now);
+                // Not held back past the first advance that was a whole tick beyond the deadline
+                assertThat(deadline).as("timer %s", id).isGreaterThan(previous - tickMs);
+            }
+            long clock = now;
+            List<Integer> overdue = new ArrayList<>();
+            pending.forEach((id, deadline) -> {
+                if (deadline + tickMs <= clock) {
+                    overdue.add(id);
+                }
+            });
+            assertThat(overdue).as("timers more than a tick past their deadline").isEmpty();
+        }
+    }
+
+    @Test
+    void rejectsDeadlinesThatHavePassed() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 4, 1_000);
+        wheel.advanceTo(1_500);
+
+        assertThat(wheel.add("late", 1_200)).isFalse();
+        assertThat(wheel.add("now", 1_500)).isTrue();
+        assertThat(wheel.advanceTo(1_600)).containsExactly("now");
+    }
+
+    @Test
+    void cascadesTimersFromOverflowWheels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 4, 0);
+        // 4, 16 and 64 ms are the spans of the first three wheels
+        wheel.add("a", 3);
+        wheel.add("b", 15);
+        wheel.add("c", 63);
+        wheel.add("d", 1_000);
+
+        assertThat(wheel.advanceTo(3)).isEmpty();
+        assertThat(wheel.advanceTo(4)).containsExactly("a");
+        assertThat(wheel.advanceTo(15)).isEmpty();
+        assertThat(wheel.advanceTo(16)).containsExactly("b");
+        assertThat(wheel.advanceTo(999)).containsExactly("c");
+        assertThat(wheel.advanceTo(1_001)).containsExactly("d");
+    }
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<>(0, 8, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<>(10, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
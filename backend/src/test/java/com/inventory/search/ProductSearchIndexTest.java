@@ -0,0 +1,95 @@
+package com.inventory.search;
+
+import com.inventory.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void ranksNameMatchesAboveCategoryAboveDescription() {
+        index.index(product(1L, 10L, "Plain Flour", "Good for rice dishes", "Baking"));
+        index.index(product(2L, 10L, "Basmati Rice", null, "Grains"));
+        index.index(product(3L, 10L, "Jasmine", "Fragrant", "Rice"));
+
+        assertThat(ids(index.search("rice", null, null, 10))).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void matchesAnyTermAndFavoursProductsMatchingMore() {
+        index.index(product(1L, 10L, "Brown Rice", null, null));
+        index.index(product(2L, 10L, "Brown Sugar", null, null));
+        index.index(product(3L, 10L, "Rice Cakes", null, null));
+
+        List<SearchHit> hits = index.search("brown rice", null, null, 10);
+
+        assertThat(ids(hits)).hasSize(3).startsWith(1L);
+    }
+
+    @Test
+    void filtersByCategoryAndShop() {
+        index.index(product(1L, 10L, "Green Tea", null, "Drinks"));
+        index.index(product(2L, 10L, "Tea Towel", null, "Kitchen"));
+        index.index(product(3L, 20L, "Black Tea", null, "Drinks"));
+
+        assertThat(ids(index.search("tea", " drinks ", null, 10))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids(index.search("tea", null, 10L, 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.search("tea", "drinks", 20L, 10))).containsExactly(3L);
+    }
+
+    @Test
+    void returnsOnlyTheTopHits() {
+        for (long id = 1; id <= 50; id++) {
+            index.index(product(id, 10L, "Candle " + "scented ".repeat((int) (id % 5)), null, null));
+        }
+
+        assertThat(index.search("candle scented", null, null, 5)).hasSize(5);
+    }
+
+    @Test
+    void reindexingReplacesTheOldTerms() {
+        index.index(product(1L, 10L, "Green Tea", null, null));
+        index.index(product(1L, 10L, "Black Coffee", null, null));
+
+        assertThat(index.search("tea", null, null, 10)).isEmpty();
+        assertThat(ids(index.search("coffee", null, null, 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removedProductsAreNotFoundAndNoLongerAffectScores() {
+        index.index(product(1L, 10L, "Rice", null, null));
+        double aloneScore = index.search("rice", null, null, 10).get(0).getScore();
+
+        index.index(product(2L, 20L, "Rice", null, null));
+        index.index(product(3L, 20L, "Rice", null, null));
+        index.removeAll(List.of(2L, 3L));
+
+        List<SearchHit> hits = index.search("rice", null, null, 10);
+        assertThat(ids(hits)).containsExactly(1L);
+        assertThat(hits.get(0).getScore()).isEqualTo(aloneScore);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void queriesWithoutTermsFindNothing() {
+        index.index(product(1L, 10L, "The Product", null, null));
+
+        assertThat(index.search("the of a", null, null, 10)).isEmpty();
+        assertThat(index.search("product", null, null, 0)).isEmpty();
+    }
+
+    private static ProductResponse product(Long id, Long shopId, String name, String description, String category) {
+        return new ProductResponse(id, shopId, name, description, BigDecimal.ONE, 1, category);
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getProductId).toList();
+    }
+}
@@ -0,0 +1,30 @@
+package com.inventory.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenizerTest {
+
+    @Test
+    void splitsOnNonAlphanumericsAndLowerCases() {
+        assertThat(Tokenizer.tokenize("Basmati-Rice, 5KG (Aged)")).containsExactly("basmati", "rice", "5kg", "aged");
+    }
+
+    @Test
+    void dropsStopWordsAndSingleLetters() {
+        assertThat(Tokenizer.tokenize("A bag of the best rice x")).containsExactly("bag", "best", "rice");
+    }
+
+    @Test
+    void keepsSingleDigitsAndNonLatinLetters() {
+        assertThat(Tokenizer.tokenize("Size 5 Müsli Чай")).containsExactly("size", "5", "müsli", "чай");
+    }
+
+    @Test
+    void nullOrBlankTextHasNoTerms() {
+        assertThat(Tokenizer.tokenize(null)).isEmpty();
+        assertThat(Tokenizer.tokenize("")).isEmpty();
+        assertThat(Tokenizer.tokenize(" -- ")).isEmpty();
+    }
+}
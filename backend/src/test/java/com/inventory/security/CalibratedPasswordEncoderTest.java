@@ -0,0 +1,40 @@
+package com.inventory.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedPasswordEncoderTest {
+
+    // Pinned cost, so nothing is timed
+    private final CalibratedPasswordEncoder encoder = CalibratedPasswordEncoder.create("bcrypt", 250, 6, 4, 15,
+            19456, 1, 10);
+
+    @Test
+    void upgradesOnlyWeakerHashes() {
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(5).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret"))).isFalse();
+        // Made by a faster instance sharing the database: kept, not weakened
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(8).encode("secret"))).isFalse();
+    }
+
+    @Test
+    void upgradesUnprefixedAndOtherAlgorithmsHashes() {
+        String legacy = new BCryptPasswordEncoder(8).encode("secret");
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding("{argon2}$argon2id$v=19$m=19456,t=2,p=1$c2FsdA$aGFzaA")).isTrue();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void newHashesNeedNoUpgrade() {
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).startsWith("{bcrypt}");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+}
@@ -0,0 +1,64 @@
+package com.inventory.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsPlainRecords() throws IOException {
+        assertThat(readAll("name,price,stock\nRice,2.50,10\n")).containsExactly(
+                List.of("name", "price", "stock"),
+                List.of("Rice", "2.50", "10"));
+    }
+
+    @Test
+    void handlesQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        assertThat(readAll("\"Rice, 5kg\",\"The \"\"best\"\"\",\"two\nlines\"\n")).containsExactly(
+                List.of("Rice, 5kg", "The \"best\"", "two\nlines"));
+    }
+
+    @Test
+    void acceptsCrLfAndAMissingFinalLineBreak() throws IOException {
+        assertThat(readAll("a,b\r\nc,d")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertThat(readAll(",x,\n\"\",\n")).containsExactly(List.of("", "x", ""), List.of("", ""));
+    }
+
+    @Test
+    void blankLineIsOneEmptyField() throws IOException {
+        assertThat(readAll("a\n\nb\n")).containsExactly(List.of("a"), List.of(""), List.of("b"));
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertThat(readAll("")).isEmpty();
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"never closed,1\n"));
+
+        assertThatThrownBy(reader::next).isInstanceOf(IOException.class);
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
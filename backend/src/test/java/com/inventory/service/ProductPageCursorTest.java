@@ -0,0 +1,63 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.exception.BadRequestException;
+import com.inventory.repository.ProductSort;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductPageCursorTest {
+
+    private static final ProductResponse LAST = new ProductResponse(42L, 7L, "Tea | Coffee \u2615", null,
+            new BigDecimal("12.50"), 3, "drinks");
+
+    @Test
+    void roundTripsEverySortKey() {
+        assertRoundTrip(ProductSort.ID, false, 42L);
+        assertRoundTrip(ProductSort.NAME, true, "Tea | Coffee \u2615");
+        assertRoundTrip(ProductSort.PRICE, false, new BigDecimal("12.50"));
+        assertRoundTrip(ProductSort.STOCK, true, 3);
+    }
+
+    @Test
+    void isUrlSafe() {
+        String cursor = ProductPageCursor.encode(ProductSort.NAME, false, LAST);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertInvalid("not base64!");
+        assertInvalid(encodeRaw("NAME|a|42"));
+        assertInvalid(encodeRaw("COLOUR|a|42|red"));
+        assertInvalid(encodeRaw("ID|a|forty-two|42"));
+        assertInvalid(encodeRaw("PRICE|d|42|cheap"));
+        assertInvalid(encodeRaw("STOCK|a|42|3.5"));
+    }
+
+    private static void assertRoundTrip(ProductSort sort, boolean descending, Object value) {
+        ProductPageCursor cursor = ProductPageCursor.decode(ProductPageCursor.encode(sort, descending, LAST));
+
+        assertThat(cursor.sort).isEqualTo(sort);
+        assertThat(cursor.descending).isEqualTo(descending);
+        assertThat(cursor.afterId).isEqualTo(42L);
+        assertThat(cursor.afterValue).isEqualTo(value);
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThatThrownBy(() -> ProductPageCursor.decode(cursor))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
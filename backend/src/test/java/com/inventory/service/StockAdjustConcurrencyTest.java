@@ -0,0 +1,150 @@
+package com.inventory.service;
+
+import com.inventory.exception.ConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Concurrent stock adjustments through {@link ProductService#adjustStock}
+ * against a real PostgreSQL: the conditional UPDATE must neither lose an
+ * update nor let the stock go negative or overflow.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "app.journal.enabled=false",
+        "app.reservations.log-path=build/test-data/reservations.log"
+})
+@Testcontainers
+class StockAdjustConcurrencyTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+    private Long shopId;
+
+    @BeforeEach
+    void createShop() {
+        ownerId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, role) "
+                + "VALUES ('stock-owner-' || gen_random_uuid(), '-', 'SHOP') RETURNING id", Long.class);
+        shopId = jdbcTemplate.queryForObject("INSERT INTO shop "
+                + "(name, address, phone, owner_id, latitude, longitude, open_hours, delivery_option) "
+                + "VALUES ('Stock Test', '-', '0', ?, 0, 0, '-', 'PICKUP') RETURNING id", Long.class, ownerId);
+    }
+
+    @Test
+    void concurrentSalesSellExactlyTheStock() throws Exception {
+        int stock = 20;
+        int threads = 64;
+        Long productId = createProduct(stock);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> sales = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                sales.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        productService.adjustStock(productId, -1, ownerId);
+                        return true;
+                    } catch (ConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int sold = 0;
+            int rejected = 0;
+            for (Future<Boolean> sale : sales) {
+                if (sale.get(30, TimeUnit.SECONDS)) {
+                    sold++;
+                } else {
+                    rejected++;
+                }
+            }
+
+            assertThat(sold).isEqualTo(stock);
+            assertThat(rejected).isEqualTo(threads - stock);
+            assertThat(stockOf(productId)).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentRestocksAndSalesLoseNoUpdate() throws Exception {
+        int stock = 1000;
+        int threads = 32;
+        int perThread = 50;
+        Long productId = createProduct(stock);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                // Half the threads add 3 per call and half take 1, so the result differs from the start
+                int delta = i % 2 == 0 ? 3 : -1;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < perThread; j++) {
+                        productService.adjustStock(productId, delta, ownerId);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+
+            assertThat(stockOf(productId)).isEqualTo(stock + (threads / 2) * perThread * (3 - 1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deltaThatWouldOverflowIsAConflict() {
+        Long productId = createProduct(10);
+
+        assertThatThrownBy(() -> productService.adjustStock(productId, Integer.MAX_VALUE, ownerId))
+                .isInstanceOf(ConflictException.class);
+        assertThat(stockOf(productId)).isEqualTo(10);
+    }
+
+    private Long createProduct(int stock) {
+        return jdbcTemplate.queryForObject("INSERT INTO product (shop_id, name, price, stock) "
+                + "VALUES (?, 'Contended', 1.00, ?) RETURNING id", Long.class, shopId, stock);
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, productId);
+    }
+}
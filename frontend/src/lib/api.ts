@@ -1,6 +1,6 @@
 import axios from 'axios';
-import { Shop, ShopRequest } from '@/types/shop';
-import { Product, ProductRequest } from '@/types/product';
+import { NearbyShop, Shop, ShopRequest } from '@/types/shop';
+import { Product, ProductPage, ProductRequest, ProductSort } from '@/types/product';
 
 const api = axios.create({
   baseURL: process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080',
@@ -41,6 +41,10 @@ export const shopApi = {
   // Get ALL shops in the system (ADMIN only) ← THIS LINE IS MISSING!
   getAllShops: () => api.get<Shop[]>('/api/v1/shops'),
 
+  // Find the shops nearest to a location, closest first
+  getNearby: (lat: number, lon: number, radiusKm?: number, limit?: number) =>
+    api.get<NearbyShop[]>('/api/v1/shops/nearby', { params: { lat, lon, radiusKm, limit } }),
+
   // Get a specific shop by its ID
   getShop: (id: number) => api.get<Shop>(`/api/v1/shops/${id}`),
 
@@ -57,8 +61,16 @@ export const productApi = {
     api.post<Product>(`/api/v1/shops/${shopId}/products`, data),
   getByShop: (shopId: number) =>
     api.get<Product[]>(`/api/v1/shops/${shopId}/products`),
+  getPage: (
+    shopId: number,
+    params: { cursor?: string; size?: number; sort?: ProductSort; direction?: 'asc' | 'desc' } = {}
+  ) => api.get<ProductPage>(`/api/v1/shops/${shopId}/products/page`, { params }),
+  search: (q: string, params: { category?: string; shopId?: number; limit?: number } = {}) =>
+    api.get<Product[]>('/api/v1/products/search', { params: { q, ...params } }),
   update: (id: number, data: ProductRequest) =>
     api.put<Product>(`/api/v1/products/${id}`, data),
+  adjustStock: (id: number, delta: number) =>
+    api.post<{ productId: number; stock: number }>(`/api/v1/products/${id}/stock:adjust`, { delta }),
   delete: (id: number) => api.delete(`/api/v1/products/${id}`),
   deleteMultiple: (productIds: number[]) => api.delete('/api/v1/products/bulk', { data: productIds }),
 };
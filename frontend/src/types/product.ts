@@ -16,3 +16,11 @@ export interface ProductRequest {
   category?: string;
 }
 
+
+export interface ProductPage {
+  items: Product[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+export type ProductSort = 'id' | 'name' | 'price' | 'stock';
@@ -21,5 +21,10 @@ export interface ShopRequest {
   ownerId?: number;
 }
 
+export interface NearbyShop {
+  shop: Shop;
+  distanceKm: number;
+}
+
 export type DeliveryOption = 'NO_DELIVERY' | 'IN_HOUSE_DRIVER' | 'THIRD_PARTY_PARTNER';
 